@@ -5,6 +5,7 @@ import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -18,6 +19,10 @@ public class RabbitMQConfig {
 
     // Exchange names
     public static final String FARM_ADVISOR_EXCHANGE = "farm-advisor-exchange";
+    // Outbound WebSocket messages, fanned out to every API node (app.ws.cluster.transport=rabbit)
+    public static final String WS_BROADCAST_EXCHANGE = "ws-broadcast-exchange";
+    // Node-local cache invalidations and wake-ups, fanned out to every API node (app.cluster.transport=rabbit)
+    public static final String CLUSTER_EVENTS_EXCHANGE = "cluster-events-exchange";
 
     // Routing keys
     public static final String DISEASE_DETECTION_ROUTING_KEY = "disease.detection";
@@ -59,6 +64,43 @@ public class RabbitMQConfig {
         return BindingBuilder.bind(marketplaceNotificationQueue).to(exchange).with(MARKETPLACE_NOTIFICATION_ROUTING_KEY);
     }
 
+    @Bean
+    @ConditionalOnProperty(name = "app.ws.cluster.transport", havingValue = "rabbit")
+    public FanoutExchange wsBroadcastExchange() {
+        return new FanoutExchange(WS_BROADCAST_EXCHANGE);
+    }
+
+    // One auto-delete queue per node, so every node receives every broadcast
+    @Bean
+    @ConditionalOnProperty(name = "app.ws.cluster.transport", havingValue = "rabbit")
+    public AnonymousQueue wsBroadcastQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.ws.cluster.transport", havingValue = "rabbit")
+    public Binding wsBroadcastBinding(AnonymousQueue wsBroadcastQueue, FanoutExchange wsBroadcastExchange) {
+        return BindingBuilder.bind(wsBroadcastQueue).to(wsBroadcastExchange);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cluster.transport", havingValue = "rabbit")
+    public FanoutExchange clusterEventExchange() {
+        return new FanoutExchange(CLUSTER_EVENTS_EXCHANGE);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cluster.transport", havingValue = "rabbit")
+    public AnonymousQueue clusterEventQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cluster.transport", havingValue = "rabbit")
+    public Binding clusterEventBinding(AnonymousQueue clusterEventQueue, FanoutExchange clusterEventExchange) {
+        return BindingBuilder.bind(clusterEventQueue).to(clusterEventExchange);
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -20,4 +20,6 @@ public class UpdateUserRequest {
     private String email;
     
     private String phoneNumber;
+    
+    private String avatarUrl;
 } 
\ No newline at end of file
@@ -19,6 +19,7 @@ public class UserDto {
     private String email;
     private String fullName;
     private String phoneNumber;
+    private String avatarUrl;
     private Set<Role> roles;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
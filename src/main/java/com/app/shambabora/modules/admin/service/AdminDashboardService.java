@@ -3,16 +3,16 @@ package com.app.shambabora.modules.admin.service;
 import com.app.shambabora.common.api.ApiResponse;
 import com.app.shambabora.modules.collaboration.repository.GroupMembershipRepository;
 import com.app.shambabora.modules.collaboration.repository.GroupRepository;
-import com.app.shambabora.modules.collaboration.repository.PostCommentRepository;
-import com.app.shambabora.modules.collaboration.repository.PostRepository;
 import com.app.shambabora.modules.collaboration.entity.GroupMembership;
 import com.app.shambabora.modules.collaboration.entity.Post;
 import com.app.shambabora.modules.collaboration.entity.PostComment;
+import com.app.shambabora.modules.collaboration.service.ModerationStatsProvider;
 import com.app.shambabora.modules.marketplace.repository.ProductRepository;
 import com.app.shambabora.repository.UserRepository;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -21,53 +21,90 @@ import org.springframework.stereotype.Service;
 public class AdminDashboardService {
     
     private final UserRepository userRepository;
-    private final PostRepository postRepository;
-    private final PostCommentRepository postCommentRepository;
+    private final ModerationStatsProvider moderationStatsProvider;
     private final GroupRepository groupRepository;
     private final GroupMembershipRepository groupMembershipRepository;
     private final ProductRepository productRepository;
     
+    @Value("${app.admin.dashboard-cache-ms:60000}")
+    private long dashboardCacheMs;
+    
+    // User/group/product counts change slowly; they are re-counted at most once per cache period
+    private volatile EntityCounts entityCounts;
+    
     public ApiResponse<DashboardStatsDTO> getComprehensiveStats() {
         log.info("Calculating comprehensive dashboard statistics");
         
         DashboardStatsDTO stats = new DashboardStatsDTO();
+        EntityCounts counts = currentEntityCounts();
         
         // User Statistics
-        stats.setTotalUsers(userRepository.count());
-        stats.setActiveUsers(userRepository.findAll().stream()
-                .filter(user -> user.getIsActive() != null && user.getIsActive())
-                .count());
+        stats.setTotalUsers(counts.totalUsers);
+        stats.setActiveUsers(counts.activeUsers);
         
-        // Post Statistics
-        stats.setTotalPosts(postRepository.count());
-        stats.setPendingPosts(postRepository.countByStatus(Post.PostStatus.PENDING_MODERATION));
-        stats.setApprovedPosts(postRepository.countByStatus(Post.PostStatus.APPROVED));
-        stats.setRejectedPosts(postRepository.countByStatus(Post.PostStatus.REJECTED));
-        stats.setHiddenPosts(postRepository.countByStatus(Post.PostStatus.HIDDEN));
+        // Post Statistics (in-memory snapshot)
+        stats.setTotalPosts(moderationStatsProvider.getTotalPosts());
+        stats.setPendingPosts(moderationStatsProvider.getPostCount(Post.PostStatus.PENDING_MODERATION));
+        stats.setApprovedPosts(moderationStatsProvider.getPostCount(Post.PostStatus.APPROVED));
+        stats.setRejectedPosts(moderationStatsProvider.getPostCount(Post.PostStatus.REJECTED));
+        stats.setHiddenPosts(moderationStatsProvider.getPostCount(Post.PostStatus.HIDDEN));
         
-        // Comment Statistics
-        stats.setTotalComments(postCommentRepository.count());
-        stats.setPendingComments(postCommentRepository.countByStatus(PostComment.CommentStatus.PENDING_MODERATION));
-        stats.setApprovedComments(postCommentRepository.countByStatus(PostComment.CommentStatus.APPROVED));
-        stats.setRejectedComments(postCommentRepository.countByStatus(PostComment.CommentStatus.REJECTED));
-        stats.setHiddenComments(postCommentRepository.countByStatus(PostComment.CommentStatus.HIDDEN));
+        // Comment Statistics (in-memory snapshot)
+        stats.setTotalComments(moderationStatsProvider.getTotalComments());
+        stats.setPendingComments(moderationStatsProvider.getCommentCount(PostComment.CommentStatus.PENDING_MODERATION));
+        stats.setApprovedComments(moderationStatsProvider.getCommentCount(PostComment.CommentStatus.APPROVED));
+        stats.setRejectedComments(moderationStatsProvider.getCommentCount(PostComment.CommentStatus.REJECTED));
+        stats.setHiddenComments(moderationStatsProvider.getCommentCount(PostComment.CommentStatus.HIDDEN));
         
         // Group Statistics
-        stats.setTotalGroups(groupRepository.count());
-        stats.setActiveGroups(groupRepository.count()); // All groups are considered active unless deleted
+        stats.setTotalGroups(counts.totalGroups);
+        stats.setActiveGroups(counts.totalGroups); // All groups are considered active unless deleted
         stats.setFrozenGroups(0); // No frozen status in current implementation
-        stats.setTotalGroupMembers(groupMembershipRepository.countByStatus(GroupMembership.MembershipStatus.ACTIVE));
+        stats.setTotalGroupMembers(counts.totalGroupMembers);
         
         // Product Statistics
-        stats.setTotalProducts(productRepository.count());
-        stats.setAvailableProducts(productRepository.findAll().stream()
-                .filter(product -> product.isAvailable())
-                .count());
+        stats.setTotalProducts(counts.totalProducts);
+        stats.setAvailableProducts(counts.availableProducts);
         
         log.info("Dashboard statistics calculated successfully");
         return ApiResponse.ok("Dashboard statistics retrieved successfully", stats);
     }
     
+    private EntityCounts currentEntityCounts() {
+        EntityCounts counts = entityCounts;
+        if (counts == null || System.currentTimeMillis() - counts.loadedAt > dashboardCacheMs) {
+            counts = new EntityCounts(
+                    userRepository.count(),
+                    userRepository.countByIsActiveTrue(),
+                    groupRepository.count(),
+                    groupMembershipRepository.countByStatus(GroupMembership.MembershipStatus.ACTIVE),
+                    productRepository.count(),
+                    productRepository.countByAvailableIsTrue());
+            entityCounts = counts;
+        }
+        return counts;
+    }
+    
+    private static final class EntityCounts {
+        private final long totalUsers;
+        private final long activeUsers;
+        private final long totalGroups;
+        private final long totalGroupMembers;
+        private final long totalProducts;
+        private final long availableProducts;
+        private final long loadedAt = System.currentTimeMillis();
+        
+        EntityCounts(long totalUsers, long activeUsers, long totalGroups, long totalGroupMembers,
+                     long totalProducts, long availableProducts) {
+            this.totalUsers = totalUsers;
+            this.activeUsers = activeUsers;
+            this.totalGroups = totalGroups;
+            this.totalGroupMembers = totalGroupMembers;
+            this.totalProducts = totalProducts;
+            this.availableProducts = availableProducts;
+        }
+    }
+    
     @Data
     public static class DashboardStatsDTO {
         // User Stats
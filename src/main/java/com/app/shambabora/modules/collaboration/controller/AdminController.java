@@ -2,11 +2,19 @@ package com.app.shambabora.modules.collaboration.controller;
 
 import com.app.shambabora.common.api.ApiResponse;
 import com.app.shambabora.common.api.PageResponse;
+import com.app.shambabora.modules.collaboration.dto.BulkModerationRequestDTO;
+import com.app.shambabora.modules.collaboration.dto.BulkModerationResultDTO;
+import com.app.shambabora.modules.collaboration.dto.ModerationLeaseDTO;
 import com.app.shambabora.modules.collaboration.dto.ModerationRequestDTO;
+import com.app.shambabora.modules.collaboration.dto.ModerationTermDTO;
 import com.app.shambabora.modules.collaboration.dto.PostCommentDTO;
 import com.app.shambabora.modules.collaboration.dto.PostDTO;
+import com.app.shambabora.modules.collaboration.dto.PostFlagDTO;
 import com.app.shambabora.modules.collaboration.entity.Post;
 import com.app.shambabora.modules.collaboration.entity.PostComment;
+import com.app.shambabora.modules.collaboration.service.ContentSearchIndex;
+import com.app.shambabora.modules.collaboration.service.ModerationTermService;
+import com.app.shambabora.modules.collaboration.service.PostCounterBuffer;
 import com.app.shambabora.modules.collaboration.service.PostService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +23,8 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController("collaborationAdminController")
 @RequestMapping("/api/admin/collaboration")
 @RequiredArgsConstructor
@@ -22,6 +32,9 @@ import org.springframework.web.bind.annotation.*;
 public class AdminController {
     
     private final PostService postService;
+    private final PostCounterBuffer postCounterBuffer;
+    private final ContentSearchIndex contentSearchIndex;
+    private final ModerationTermService moderationTermService;
     
     @GetMapping("/posts/pending")
     public ResponseEntity<ApiResponse<PageResponse<PostDTO>>> getPostsPendingModeration(@PageableDefault(size = 20) Pageable pageable) {
@@ -56,6 +69,13 @@ public class AdminController {
         return ResponseEntity.ok(postService.moderatePost(postId, Post.PostStatus.HIDDEN, moderatorId, notes));
     }
     
+    @GetMapping("/posts/{postId}/flags")
+    public ResponseEntity<ApiResponse<PageResponse<PostFlagDTO>>> getPostFlags(@PathVariable Long postId,
+                                                                              @PageableDefault(size = 20) Pageable pageable) {
+        log.info("Admin getting flags for post {}", postId);
+        return ResponseEntity.ok(postService.getPostFlags(postId, pageable));
+    }
+    
     @GetMapping("/posts/rejected")
     public ResponseEntity<ApiResponse<PageResponse<PostDTO>>> getRejectedPosts(@PageableDefault(size = 20) Pageable pageable) {
         log.info("Admin getting rejected posts");
@@ -101,6 +121,53 @@ public class AdminController {
         return ResponseEntity.ok(postService.moderateComment(commentId, PostComment.CommentStatus.HIDDEN, moderatorId, notes));
     }
     
+    @PostMapping("/moderation/bulk")
+    public ResponseEntity<ApiResponse<BulkModerationResultDTO>> bulkModerate(@RequestBody BulkModerationRequestDTO request,
+                                                                            @RequestHeader(value = "X-User-Id", required = false) Long moderatorId) {
+        log.info("Admin {} bulk moderating to status {}", moderatorId, request.getStatus());
+        return ResponseEntity.ok(postService.bulkModerate(request, moderatorId));
+    }
+    
+    @PostMapping("/moderation/leases")
+    public ResponseEntity<ApiResponse<ModerationLeaseDTO>> leaseModerationWork(@RequestParam(defaultValue = "20") int limit,
+                                                                              @RequestHeader(value = "X-User-Id", required = false) Long moderatorId) {
+        log.info("Admin {} leasing up to {} moderation items", moderatorId, limit);
+        return ResponseEntity.ok(postService.leaseModerationWork(moderatorId, limit));
+    }
+    
+    @PostMapping("/moderation/leases/{leaseId}/release")
+    public ResponseEntity<ApiResponse<Integer>> releaseModerationLease(@PathVariable String leaseId,
+                                                                      @RequestHeader(value = "X-User-Id", required = false) Long moderatorId) {
+        log.info("Admin {} releasing moderation lease {}", moderatorId, leaseId);
+        return ResponseEntity.ok(postService.releaseModerationLease(leaseId, moderatorId));
+    }
+    
+    @GetMapping("/moderation/terms")
+    public ResponseEntity<ApiResponse<List<ModerationTermDTO>>> listModerationTerms() {
+        log.info("Admin listing moderation terms");
+        return ResponseEntity.ok(moderationTermService.listTerms());
+    }
+    
+    @PostMapping("/moderation/terms")
+    public ResponseEntity<ApiResponse<ModerationTermDTO>> createModerationTerm(@RequestBody ModerationTermDTO request,
+                                                                              @RequestHeader(value = "X-User-Id", required = false) Long adminId) {
+        log.info("Admin {} adding moderation term of type {}", adminId, request.getType());
+        return ResponseEntity.ok(moderationTermService.createTerm(request, adminId));
+    }
+    
+    @PutMapping("/moderation/terms/{termId}/active")
+    public ResponseEntity<ApiResponse<ModerationTermDTO>> setModerationTermActive(@PathVariable Long termId,
+                                                                                 @RequestParam boolean active) {
+        log.info("Admin setting moderation term {} active={}", termId, active);
+        return ResponseEntity.ok(moderationTermService.setActive(termId, active));
+    }
+    
+    @DeleteMapping("/moderation/terms/{termId}")
+    public ResponseEntity<ApiResponse<Void>> deleteModerationTerm(@PathVariable Long termId) {
+        log.info("Admin deleting moderation term {}", termId);
+        return ResponseEntity.ok(moderationTermService.deleteTerm(termId));
+    }
+    
     @GetMapping("/comments/pending")
     public ResponseEntity<ApiResponse<PageResponse<PostCommentDTO>>> getCommentsPendingModeration(@PageableDefault(size = 20) Pageable pageable) {
         log.info("Admin getting comments pending moderation");
@@ -113,4 +180,17 @@ public class AdminController {
         return ResponseEntity.ok(postService.getAdminStats());
     }
     
+    @PostMapping("/posts/counters/repair")
+    public ResponseEntity<ApiResponse<Integer>> repairPostCounters() {
+        log.info("Admin repairing post like/comment counters");
+        return ResponseEntity.ok(ApiResponse.ok("Post counters repaired", postCounterBuffer.repair()));
+    }
+    
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<ApiResponse<Void>> rebuildSearchIndex() {
+        log.info("Admin rebuilding search index");
+        contentSearchIndex.rebuild();
+        return ResponseEntity.ok(ApiResponse.ok("Search index rebuilt", null));
+    }
+    
 }
@@ -1,7 +1,9 @@
 package com.app.shambabora.modules.collaboration.controller;
 
 import com.app.shambabora.common.api.ApiResponse;
+import com.app.shambabora.common.api.CursorPageResponse;
 import com.app.shambabora.common.api.PageResponse;
+import com.app.shambabora.modules.collaboration.dto.ConversationSummaryDTO;
 import com.app.shambabora.modules.collaboration.dto.DirectMessageDTO;
 import com.app.shambabora.modules.collaboration.service.DirectMessageService;
 import jakarta.validation.Valid;
@@ -9,8 +11,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.Instant;
 import java.util.List;
@@ -38,6 +43,16 @@ public class DirectMessageController {
         return ResponseEntity.ok(directMessageService.getConversation(currentUserId, otherUserId, pageable));
     }
     
+    // Cursor-paged conversation, newest first; pass back nextCursor to load older messages
+    @GetMapping("/conversation/{otherUserId}/cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<DirectMessageDTO>>> getConversationByCursor(@PathVariable Long otherUserId,
+                                                                                                    @RequestHeader("X-User-Id") Long currentUserId,
+                                                                                                    @RequestParam(required = false) String cursor,
+                                                                                                    @RequestParam(defaultValue = "50") int size) {
+        log.info("Getting cursor conversation between {} and {}", currentUserId, otherUserId);
+        return ResponseEntity.ok(directMessageService.getConversationByCursor(currentUserId, otherUserId, cursor, size));
+    }
+    
     @GetMapping("/conversations")
     public ResponseEntity<ApiResponse<PageResponse<DirectMessageDTO>>> getRecentConversations(@RequestHeader("X-User-Id") Long userId,
                                                                                              @PageableDefault(size = 20) Pageable pageable) {
@@ -45,6 +60,14 @@ public class DirectMessageController {
         return ResponseEntity.ok(directMessageService.getRecentConversations(userId, pageable));
     }
     
+    // One row per conversation partner with last-message preview and unread count
+    @GetMapping("/inbox")
+    public ResponseEntity<ApiResponse<PageResponse<ConversationSummaryDTO>>> getInbox(@RequestHeader("X-User-Id") Long userId,
+                                                                                    @PageableDefault(size = 20) Pageable pageable) {
+        log.info("Getting inbox for user: {}", userId);
+        return ResponseEntity.ok(directMessageService.getInbox(userId, pageable));
+    }
+    
     @PostMapping("/read/{messageId}")
     public ResponseEntity<ApiResponse<DirectMessageDTO>> markAsRead(@PathVariable Long messageId,
                                                                      @RequestHeader("X-User-Id") Long userId) {
@@ -52,6 +75,21 @@ public class DirectMessageController {
         return ResponseEntity.ok(directMessageService.markAsRead(messageId, userId));
     }
     
+    @PostMapping("/conversation/{otherUserId}/read")
+    public ResponseEntity<ApiResponse<String>> markConversationAsRead(@PathVariable Long otherUserId,
+                                                                      @RequestHeader("X-User-Id") Long userId) {
+        log.info("Marking conversation with {} as read by user {}", otherUserId, userId);
+        return ResponseEntity.ok(directMessageService.markConversationAsRead(otherUserId, userId));
+    }
+    
+    // Batched read receipts for messages scrolled into view; upToId defaults to the whole conversation
+    @PostMapping("/conversation/{otherUserId}/read-receipts")
+    public ResponseEntity<ApiResponse<String>> submitReadReceipt(@PathVariable Long otherUserId,
+                                                                 @RequestHeader("X-User-Id") Long userId,
+                                                                 @RequestParam(required = false) Long upToId) {
+        return ResponseEntity.ok(directMessageService.submitReadReceipt(otherUserId, userId, upToId));
+    }
+    
     @GetMapping("/conversation/{otherUserId}/after")
     public ResponseEntity<ApiResponse<List<DirectMessageDTO>>> getMessagesAfter(@PathVariable Long otherUserId,
                                                                                @RequestParam String since,
@@ -61,6 +99,26 @@ public class DirectMessageController {
         return ResponseEntity.ok(directMessageService.getMessagesAfter(currentUserId, otherUserId, sinceInstant));
     }
     
+    // Also pushed to /user/queue/unread on every change when WebSockets are enabled
+    @GetMapping("/unread/count")
+    public ResponseEntity<ApiResponse<Long>> getUnreadCount(@RequestHeader("X-User-Id") Long userId) {
+        return ResponseEntity.ok(directMessageService.getUnreadCount(userId));
+    }
+    
+    // Long-poll fallback for clients without WebSockets; pass the id of the last message received
+    @GetMapping("/poll")
+    public DeferredResult<ApiResponse<List<DirectMessageDTO>>> pollNewMessages(@RequestHeader("X-User-Id") Long userId,
+                                                                               @RequestParam(required = false) Long afterId) {
+        return directMessageService.pollNewMessages(userId, afterId);
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNewMessages(@RequestHeader("X-User-Id") Long userId,
+                                        @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        log.info("Opening message stream for user: {}", userId);
+        return directMessageService.streamNewMessages(userId, lastEventId);
+    }
+    
     @GetMapping("/partners")
     public ResponseEntity<ApiResponse<List<Long>>> getConversationPartners(@RequestHeader("X-User-Id") Long userId) {
         log.info("Getting conversation partners for user: {}", userId);
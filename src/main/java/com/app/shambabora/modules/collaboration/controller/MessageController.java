@@ -1,6 +1,7 @@
 package com.app.shambabora.modules.collaboration.controller;
 
 import com.app.shambabora.common.api.ApiResponse;
+import com.app.shambabora.common.api.CursorPageResponse;
 import com.app.shambabora.common.api.PageResponse;
 import com.app.shambabora.modules.collaboration.dto.MessageDTO;
 import com.app.shambabora.modules.collaboration.service.MessageService;
@@ -40,4 +41,13 @@ public class MessageController {
                 .build();
         return ResponseEntity.ok(ApiResponse.ok(body));
     }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<MessageDTO>>> listByCursor(
+            @RequestParam Long groupId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(ApiResponse.ok(messageService.listByCursor(groupId, cursor, size)));
+    }
 } 
\ No newline at end of file
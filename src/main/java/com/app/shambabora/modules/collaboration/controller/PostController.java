@@ -1,7 +1,9 @@
 package com.app.shambabora.modules.collaboration.controller;
 
 import com.app.shambabora.common.api.ApiResponse;
+import com.app.shambabora.common.api.CursorPageResponse;
 import com.app.shambabora.common.api.PageResponse;
+import com.app.shambabora.modules.collaboration.dto.CommentThreadDTO;
 import com.app.shambabora.modules.collaboration.dto.PostCommentDTO;
 import com.app.shambabora.modules.collaboration.dto.PostDTO;
 import com.app.shambabora.modules.collaboration.entity.Post;
@@ -14,6 +16,8 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/collaboration/posts")
 @RequiredArgsConstructor
@@ -36,6 +40,15 @@ public class PostController {
         return ResponseEntity.ok(postService.getFeed(userId, pageable));
     }
     
+    // Cursor-paged variant of /feed: pass back nextCursor to load the next page
+    @GetMapping("/feed/cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<PostDTO>>> getFeedByCursor(@RequestHeader("X-User-Id") Long userId,
+                                                                                   @RequestParam(required = false) String cursor,
+                                                                                   @RequestParam(defaultValue = "20") int size) {
+        log.info("Getting cursor feed for user: {}", userId);
+        return ResponseEntity.ok(postService.getFeedByCursor(userId, cursor, size));
+    }
+    
     @GetMapping("/group/{groupId}")
     public ResponseEntity<ApiResponse<PageResponse<PostDTO>>> getGroupPosts(@PathVariable Long groupId,
                                                                            @RequestHeader("X-User-Id") Long userId,
@@ -44,6 +57,15 @@ public class PostController {
         return ResponseEntity.ok(postService.getGroupPosts(groupId, userId, pageable));
     }
     
+    @GetMapping("/group/{groupId}/cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<PostDTO>>> getGroupPostsByCursor(@PathVariable Long groupId,
+                                                                                         @RequestHeader("X-User-Id") Long userId,
+                                                                                         @RequestParam(required = false) String cursor,
+                                                                                         @RequestParam(defaultValue = "20") int size) {
+        log.info("Getting cursor posts for group: {}", groupId);
+        return ResponseEntity.ok(postService.getGroupPostsByCursor(groupId, userId, cursor, size));
+    }
+    
     @PostMapping("/group/{groupId}")
     public ResponseEntity<ApiResponse<PostDTO>> createPostForGroup(@PathVariable Long groupId,
                                                                    @Valid @RequestBody PostDTO postDTO,
@@ -54,6 +76,14 @@ public class PostController {
         return ResponseEntity.ok(postService.createPost(postDTO, userId));
     }
     
+    @GetMapping("/trending")
+    public ResponseEntity<ApiResponse<List<PostDTO>>> getTrendingPosts(@RequestParam(required = false) Long groupId,
+                                                                      @RequestParam(defaultValue = "20") int limit,
+                                                                      @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+        log.info("Getting trending posts for group: {}", groupId);
+        return ResponseEntity.ok(postService.getTrendingPosts(groupId, userId, limit));
+    }
+    
     @PostMapping("/{postId}/like")
     public ResponseEntity<ApiResponse<PostDTO>> likePost(@PathVariable Long postId,
                                                         @RequestHeader("X-User-Id") Long userId) {
@@ -84,6 +114,21 @@ public class PostController {
         return ResponseEntity.ok(postService.getPostComments(postId, pageable));
     }
     
+    @GetMapping("/{postId}/comments/thread")
+    public ResponseEntity<ApiResponse<PageResponse<CommentThreadDTO>>> getCommentThreads(@PathVariable Long postId,
+                                                                                        @PageableDefault(size = 10) Pageable pageable) {
+        log.info("Getting comment threads for post: {}", postId);
+        return ResponseEntity.ok(postService.getCommentThreads(postId, pageable));
+    }
+    
+    @GetMapping("/{postId}/comments/cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<PostCommentDTO>>> getPostCommentsByCursor(@PathVariable Long postId,
+                                                                                                  @RequestParam(required = false) String cursor,
+                                                                                                  @RequestParam(defaultValue = "10") int size) {
+        log.info("Getting cursor comments for post: {}", postId);
+        return ResponseEntity.ok(postService.getPostCommentsByCursor(postId, cursor, size));
+    }
+    
     // Admin/Moderator endpoints
     @PostMapping("/{postId}/moderate")
     public ResponseEntity<ApiResponse<PostDTO>> moderatePost(@PathVariable Long postId,
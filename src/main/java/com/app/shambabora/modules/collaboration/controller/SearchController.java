@@ -0,0 +1,38 @@
+package com.app.shambabora.modules.collaboration.controller;
+
+import com.app.shambabora.common.api.ApiResponse;
+import com.app.shambabora.modules.collaboration.dto.PostCommentDTO;
+import com.app.shambabora.modules.collaboration.dto.PostDTO;
+import com.app.shambabora.modules.collaboration.service.PostService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/collaboration/search")
+@RequiredArgsConstructor
+@Slf4j
+public class SearchController {
+    
+    private final PostService postService;
+    
+    @GetMapping("/posts")
+    public ResponseEntity<ApiResponse<List<PostDTO>>> searchPosts(@RequestParam String q,
+                                                                 @RequestParam(required = false) Long groupId,
+                                                                 @RequestParam(defaultValue = "20") int limit,
+                                                                 @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+        log.info("Searching posts for: {}", q);
+        return ResponseEntity.ok(postService.searchPosts(q, groupId, userId, limit));
+    }
+    
+    @GetMapping("/comments")
+    public ResponseEntity<ApiResponse<List<PostCommentDTO>>> searchComments(@RequestParam String q,
+                                                                           @RequestParam(required = false) Long groupId,
+                                                                           @RequestParam(defaultValue = "20") int limit) {
+        log.info("Searching comments for: {}", q);
+        return ResponseEntity.ok(postService.searchComments(q, groupId, limit));
+    }
+}
@@ -2,38 +2,51 @@ package com.app.shambabora.modules.collaboration.controller;
 
 import com.app.shambabora.modules.collaboration.dto.DirectMessageDTO;
 import com.app.shambabora.modules.collaboration.dto.PostDTO;
+import com.app.shambabora.modules.collaboration.service.CompactFrameEncoder;
 import com.app.shambabora.modules.collaboration.service.DirectMessageService;
 import com.app.shambabora.modules.collaboration.service.PostService;
+import com.app.shambabora.modules.collaboration.service.StompOutbound;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
+import java.util.List;
+
 @Controller
 @Profile("ws")
 @RequiredArgsConstructor
 @Slf4j
 public class WebSocketController {
     
-    private final SimpMessagingTemplate messagingTemplate;
+    private final StompOutbound outbound;
+    private final CompactFrameEncoder compactFrameEncoder;
     private final DirectMessageService directMessageService;
     private final PostService postService;
     
+    /**
+     * Field name dictionary for clients using a compact encoding; sent back once on subscribe.
+     */
+    @SubscribeMapping("/encoding.fields")
+    public FieldDictionary fieldDictionary() {
+        return new FieldDictionary(CompactFrameEncoder.FIELD_DICTIONARY_VERSION, compactFrameEncoder.getFieldDictionary());
+    }
+    
     @MessageMapping("/chat.sendMessage")
     public void sendMessage(@Payload DirectMessageDTO messageDTO) {
         log.info("WebSocket: Sending message from {} to {}", messageDTO.getSenderId(), messageDTO.getRecipientId());
         
-        messagingTemplate.convertAndSendToUser(
+        outbound.sendToUser(
                 messageDTO.getRecipientId().toString(),
                 "/queue/messages",
                 messageDTO
         );
         
-        messagingTemplate.convertAndSendToUser(
+        outbound.sendToUser(
                 messageDTO.getSenderId().toString(),
                 "/queue/messages",
                 messageDTO
@@ -44,28 +57,28 @@ public class WebSocketController {
     public void addUser(@Payload String username) {
         log.info("WebSocket: User {} joined", username);
         
-        messagingTemplate.convertAndSend("/topic/public", username + " joined the chat");
+        outbound.send("/topic/public", username + " joined the chat");
     }
     
     @MessageMapping("/post.like")
     public void likePost(@Payload PostLikeRequest request) {
         log.info("WebSocket: User {} liking post {}", request.getUserId(), request.getPostId());
         
-        messagingTemplate.convertAndSend("/topic/post." + request.getPostId(), request);
+        outbound.send("/topic/post." + request.getPostId(), request);
     }
     
     @MessageMapping("/post.comment")
     public void commentOnPost(@Payload PostCommentRequest request) {
         log.info("WebSocket: User {} commenting on post {}", request.getUserId(), request.getPostId());
         
-        messagingTemplate.convertAndSend("/topic/post." + request.getPostId(), request);
+        outbound.send("/topic/post." + request.getPostId(), request);
     }
     
     @MessageMapping("/group.{groupId}")
     public void sendGroupMessage(@DestinationVariable Long groupId, @Payload GroupMessageRequest request) {
         log.info("WebSocket: Sending message to group {}", groupId);
         
-        messagingTemplate.convertAndSend("/topic/group." + groupId, request);
+        outbound.send("/topic/group." + groupId, request);
     }
     
     public static class PostLikeRequest {
@@ -109,4 +122,17 @@ public class WebSocketController {
         public String getMessageType() { return messageType; }
         public void setMessageType(String messageType) { this.messageType = messageType; }
     }
+    
+    public static class FieldDictionary {
+        private final int version;
+        private final List<List<String>> fields;
+        
+        public FieldDictionary(int version, List<List<String>> fields) {
+            this.version = version;
+            this.fields = fields;
+        }
+        
+        public int getVersion() { return version; }
+        public List<List<String>> getFields() { return fields; }
+    }
 }
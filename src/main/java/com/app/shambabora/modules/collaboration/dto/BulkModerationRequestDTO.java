@@ -0,0 +1,20 @@
+package com.app.shambabora.modules.collaboration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkModerationRequestDTO {
+    private List<Long> postIds;
+    private List<Long> commentIds;
+    // Target status, one of ACTIVE, PENDING_MODERATION, APPROVED, REJECTED, HIDDEN
+    private String status;
+    private String moderationNotes;
+}
@@ -0,0 +1,38 @@
+package com.app.shambabora.modules.collaboration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkModerationResultDTO {
+    private String status;
+    private int updatedPosts;
+    private int updatedComments;
+    @Builder.Default
+    private List<ItemOutcome> posts = new ArrayList<>();
+    @Builder.Default
+    private List<ItemOutcome> comments = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemOutcome {
+        private Long id;
+        private Outcome outcome;
+        private String previousStatus;
+    }
+
+    public enum Outcome {
+        UPDATED,
+        UNCHANGED,
+        NOT_FOUND
+    }
+}
@@ -0,0 +1,22 @@
+package com.app.shambabora.modules.collaboration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentThreadDTO {
+    private PostCommentDTO comment;
+    private int depth;
+    // Number of active replies anywhere below this comment
+    private int replyCount;
+    @Builder.Default
+    private List<CommentThreadDTO> replies = new ArrayList<>();
+}
@@ -0,0 +1,25 @@
+package com.app.shambabora.modules.collaboration.dto;
+
+import com.app.shambabora.modules.collaboration.entity.DirectMessage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationSummaryDTO {
+    private Long partnerId;
+    private String partnerName;
+    private String partnerAvatarUrl;
+    private Long lastMessageId;
+    private Long lastSenderId;
+    private String lastMessagePreview;
+    private DirectMessage.MessageType lastMessageType;
+    private Instant lastMessageAt;
+    private long unreadCount;
+}
@@ -16,8 +16,10 @@ public class DirectMessageDTO {
     private Long id;
     private Long senderId;
     private String senderName;
+    private String senderAvatarUrl;
     private Long recipientId;
     private String recipientName;
+    private String recipientAvatarUrl;
     private String content;
     private String imageUrl;
     private DirectMessage.MessageType messageType;
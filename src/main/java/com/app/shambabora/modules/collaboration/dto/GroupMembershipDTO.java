@@ -18,6 +18,7 @@ public class GroupMembershipDTO {
     private String groupName;
     private Long userId;
     private String userName;
+    private String userAvatarUrl;
     private GroupMembership.MembershipRole role;
     private GroupMembership.MembershipStatus status;
     private Instant joinedAt;
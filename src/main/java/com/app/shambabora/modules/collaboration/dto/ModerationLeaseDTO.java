@@ -0,0 +1,34 @@
+package com.app.shambabora.modules.collaboration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationLeaseDTO {
+    private String leaseId;
+    private Instant expiresAt;
+    // Items still waiting in the queue after this lease was taken
+    private int remaining;
+    @Builder.Default
+    private List<Item> items = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private String type;
+        private Long id;
+        private boolean flagged;
+        private PostDTO post;
+        private PostCommentDTO comment;
+    }
+}
@@ -0,0 +1,22 @@
+package com.app.shambabora.modules.collaboration.dto;
+
+import com.app.shambabora.modules.collaboration.entity.ModerationTerm;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationTermDTO {
+    private Long id;
+    private String term;
+    private ModerationTerm.TermType type;
+    private Boolean active;
+    private Long createdBy;
+    private Instant createdAt;
+}
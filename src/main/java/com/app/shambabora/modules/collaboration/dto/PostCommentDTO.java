@@ -17,6 +17,7 @@ public class PostCommentDTO {
     private Long postId;
     private Long authorId;
     private String authorName;
+    private String authorAvatarUrl;
     private String content;
     private Long parentCommentId;
     private PostComment.CommentStatus status;
@@ -17,6 +17,7 @@ public class PostDTO {
     private Long id;
     private Long authorId;
     private String authorName;
+    private String authorAvatarUrl;
     private Long groupId;
     private String groupName;
     private String content;
@@ -0,0 +1,20 @@
+package com.app.shambabora.modules.collaboration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostFlagDTO {
+    private Long id;
+    private Long postId;
+    private Long userId;
+    private String reason;
+    private Instant createdAt;
+}
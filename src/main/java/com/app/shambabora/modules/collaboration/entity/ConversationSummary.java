@@ -0,0 +1,56 @@
+package com.app.shambabora.modules.collaboration.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Inbox read model: one row per side of a conversation, maintained by DirectMessageService
+@Entity
+@Table(name = "conversation_summaries", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "partner_id"})
+}, indexes = {
+    @Index(name = "idx_conversation_summaries_inbox", columnList = "user_id, last_message_at, last_message_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "partner_id", nullable = false)
+    private Long partnerId;
+
+    @Column(name = "last_message_id", nullable = false)
+    private Long lastMessageId;
+
+    @Column(name = "last_sender_id", nullable = false)
+    private Long lastSenderId;
+
+    @Column(name = "last_message_preview", length = 200)
+    private String lastMessagePreview;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_message_type", length = 20)
+    private DirectMessage.MessageType lastMessageType;
+
+    @Column(name = "last_message_at", nullable = false)
+    private Instant lastMessageAt;
+
+    // Messages from the partner that this user has not read yet
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
@@ -10,7 +10,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.Instant;
 
 @Entity
-@Table(name = "direct_messages")
+@Table(name = "direct_messages", indexes = {
+    @Index(name = "idx_direct_messages_conversation", columnList = "conversation_key, created_at, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -27,6 +29,10 @@ public class DirectMessage {
     @Column(name = "recipient_id", nullable = false)
     private Long recipientId;
     
+    // "<lower user id>:<higher user id>", identical for both directions of a conversation
+    @Column(name = "conversation_key", nullable = false, length = 41)
+    private String conversationKey;
+    
     @Column(nullable = false, length = 2000)
     private String content;
     
@@ -47,6 +53,15 @@ public class DirectMessage {
     @CreationTimestamp
     private Instant createdAt;
     
+    @PrePersist
+    protected void assignConversationKey() {
+        conversationKey = conversationKey(senderId, recipientId);
+    }
+    
+    public static String conversationKey(Long userId1, Long userId2) {
+        return Math.min(userId1, userId2) + ":" + Math.max(userId1, userId2);
+    }
+    
     public enum MessageType {
         TEXT,
         IMAGE,
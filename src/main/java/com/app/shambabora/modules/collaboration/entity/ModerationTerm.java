@@ -0,0 +1,51 @@
+package com.app.shambabora.modules.collaboration.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "moderation_terms")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationTerm {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // Words/phrases are matched case-insensitively on word boundaries; phone patterns use '#' for any digit
+    @Column(nullable = false, length = 200)
+    private String term;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TermType type;
+    
+    @Builder.Default
+    @Column(nullable = false)
+    private boolean active = true;
+    
+    @Column(name = "created_by")
+    private Long createdBy;
+    
+    @CreationTimestamp
+    private Instant createdAt;
+    
+    @UpdateTimestamp
+    private Instant updatedAt;
+    
+    public enum TermType {
+        BANNED_WORD,
+        SCAM_PHRASE,
+        PHONE_PATTERN
+    }
+}
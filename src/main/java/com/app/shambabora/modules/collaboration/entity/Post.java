@@ -13,7 +13,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+    @Index(name = "idx_posts_group_created", columnList = "group_id, created_at, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -50,6 +52,15 @@ public class Post {
     @Column(name = "moderation_notes", length = 500)
     private String moderationNotes;
     
+    // Denormalized counters, maintained by PostCounterBuffer with relative UPDATEs only
+    @Column(name = "like_count", nullable = false, updatable = false, columnDefinition = "bigint default 0")
+    @Builder.Default
+    private long likeCount = 0;
+    
+    @Column(name = "comment_count", nullable = false, updatable = false, columnDefinition = "bigint default 0")
+    @Builder.Default
+    private long commentCount = 0;
+    
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private List<PostLike> likes = new ArrayList<>();
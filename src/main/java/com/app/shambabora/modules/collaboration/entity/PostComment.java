@@ -11,7 +11,9 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.Instant;
 
 @Entity
-@Table(name = "post_comments")
+@Table(name = "post_comments", indexes = {
+    @Index(name = "idx_post_comments_post_status_created", columnList = "post_id, status, created_at, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,37 @@
+package com.app.shambabora.modules.collaboration.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Rows are written in batches by PostFlagAggregator (INSERT IGNORE on the unique key)
+@Entity
+@Table(name = "post_flags", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"post_id", "user_id"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostFlag {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(length = 500)
+    private String reason;
+    
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,25 @@
+package com.app.shambabora.modules.collaboration.event;
+
+import com.app.shambabora.modules.collaboration.dto.DirectMessageDTO;
+import com.app.shambabora.modules.collaboration.service.NotificationService;
+
+public class DirectMessageSentEvent implements NotificationEvent {
+
+    private final DirectMessageDTO message;
+
+    public DirectMessageSentEvent(DirectMessageDTO message) {
+        this.message = message;
+    }
+
+    public DirectMessageDTO getMessage() { return message; }
+
+    @Override
+    public String getDestination() {
+        return "/user/" + message.getRecipientId() + "/queue/messages";
+    }
+
+    @Override
+    public void dispatch(NotificationService notificationService) {
+        notificationService.notifyNewMessage(message);
+    }
+}
@@ -0,0 +1,30 @@
+package com.app.shambabora.modules.collaboration.event;
+
+import com.app.shambabora.modules.collaboration.service.NotificationService;
+
+public class GroupUpdatedEvent implements NotificationEvent {
+
+    private final Long groupId;
+    private final String updateType;
+    private final Object data;
+
+    public GroupUpdatedEvent(Long groupId, String updateType, Object data) {
+        this.groupId = groupId;
+        this.updateType = updateType;
+        this.data = data;
+    }
+
+    public Long getGroupId() { return groupId; }
+    public String getUpdateType() { return updateType; }
+    public Object getData() { return data; }
+
+    @Override
+    public String getDestination() {
+        return "/topic/group." + groupId;
+    }
+
+    @Override
+    public void dispatch(NotificationService notificationService) {
+        notificationService.notifyGroupUpdate(groupId, updateType, data);
+    }
+}
@@ -0,0 +1,35 @@
+package com.app.shambabora.modules.collaboration.event;
+
+import com.app.shambabora.modules.collaboration.service.NotificationService;
+
+import java.util.List;
+
+public class ModerationBatchEvent implements NotificationEvent {
+
+    private final String status;
+    private final String notes;
+    private final List<Long> postIds;
+    private final List<Long> commentIds;
+
+    public ModerationBatchEvent(String status, String notes, List<Long> postIds, List<Long> commentIds) {
+        this.status = status;
+        this.notes = notes;
+        this.postIds = postIds;
+        this.commentIds = commentIds;
+    }
+
+    public String getStatus() { return status; }
+    public String getNotes() { return notes; }
+    public List<Long> getPostIds() { return postIds; }
+    public List<Long> getCommentIds() { return commentIds; }
+
+    @Override
+    public String getDestination() {
+        return "/topic/moderation";
+    }
+
+    @Override
+    public void dispatch(NotificationService notificationService) {
+        notificationService.notifyModerationBatch(status, notes, postIds, commentIds);
+    }
+}
@@ -0,0 +1,28 @@
+package com.app.shambabora.modules.collaboration.event;
+
+import com.app.shambabora.modules.collaboration.service.NotificationService;
+
+/**
+ * Domain event that results in a WebSocket notification.
+ *
+ * Services publish these through Spring's {@code ApplicationEventPublisher} inside their
+ * transaction; {@code NotificationEventDispatcher} sends them once the transaction commits, on
+ * its own thread. Events for the same destination are dispatched together, in publish order.
+ */
+public interface NotificationEvent {
+
+    /**
+     * STOMP destination the notification goes to; events are batched by this key.
+     */
+    String getDestination();
+
+    void dispatch(NotificationService notificationService);
+
+    /**
+     * True when only the latest event for the destination matters (e.g. a current count), so
+     * earlier queued ones can be skipped.
+     */
+    default boolean supersedesPrevious() {
+        return false;
+    }
+}
@@ -0,0 +1,30 @@
+package com.app.shambabora.modules.collaboration.event;
+
+import com.app.shambabora.modules.collaboration.service.NotificationService;
+
+public class PostCommentedEvent implements NotificationEvent {
+
+    private final Long postId;
+    private final Long userId;
+    private final String content;
+
+    public PostCommentedEvent(Long postId, Long userId, String content) {
+        this.postId = postId;
+        this.userId = userId;
+        this.content = content;
+    }
+
+    public Long getPostId() { return postId; }
+    public Long getUserId() { return userId; }
+    public String getContent() { return content; }
+
+    @Override
+    public String getDestination() {
+        return "/topic/post." + postId;
+    }
+
+    @Override
+    public void dispatch(NotificationService notificationService) {
+        notificationService.notifyPostComment(postId, userId, content);
+    }
+}
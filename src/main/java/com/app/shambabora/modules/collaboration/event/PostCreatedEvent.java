@@ -0,0 +1,25 @@
+package com.app.shambabora.modules.collaboration.event;
+
+import com.app.shambabora.modules.collaboration.dto.PostDTO;
+import com.app.shambabora.modules.collaboration.service.NotificationService;
+
+public class PostCreatedEvent implements NotificationEvent {
+
+    private final PostDTO post;
+
+    public PostCreatedEvent(PostDTO post) {
+        this.post = post;
+    }
+
+    public PostDTO getPost() { return post; }
+
+    @Override
+    public String getDestination() {
+        return post.getGroupId() != null ? "/topic/group." + post.getGroupId() : "/topic/feed";
+    }
+
+    @Override
+    public void dispatch(NotificationService notificationService) {
+        notificationService.notifyNewPost(post);
+    }
+}
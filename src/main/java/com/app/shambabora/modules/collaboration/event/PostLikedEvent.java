@@ -0,0 +1,30 @@
+package com.app.shambabora.modules.collaboration.event;
+
+import com.app.shambabora.modules.collaboration.service.NotificationService;
+
+public class PostLikedEvent implements NotificationEvent {
+
+    private final Long postId;
+    private final Long userId;
+    private final String action;
+
+    public PostLikedEvent(Long postId, Long userId, String action) {
+        this.postId = postId;
+        this.userId = userId;
+        this.action = action;
+    }
+
+    public Long getPostId() { return postId; }
+    public Long getUserId() { return userId; }
+    public String getAction() { return action; }
+
+    @Override
+    public String getDestination() {
+        return "/topic/post." + postId;
+    }
+
+    @Override
+    public void dispatch(NotificationService notificationService) {
+        notificationService.notifyPostLike(postId, userId, action);
+    }
+}
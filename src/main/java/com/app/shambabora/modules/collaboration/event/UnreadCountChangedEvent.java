@@ -0,0 +1,33 @@
+package com.app.shambabora.modules.collaboration.event;
+
+import com.app.shambabora.modules.collaboration.service.NotificationService;
+
+public class UnreadCountChangedEvent implements NotificationEvent {
+
+    private final Long userId;
+    private final long unreadCount;
+
+    public UnreadCountChangedEvent(Long userId, long unreadCount) {
+        this.userId = userId;
+        this.unreadCount = unreadCount;
+    }
+
+    public Long getUserId() { return userId; }
+    public long getUnreadCount() { return unreadCount; }
+
+    @Override
+    public String getDestination() {
+        return "/user/" + userId + "/queue/unread";
+    }
+
+    @Override
+    public void dispatch(NotificationService notificationService) {
+        notificationService.notifyUnreadCount(userId, unreadCount);
+    }
+
+    // Only the latest count is worth sending
+    @Override
+    public boolean supersedesPrevious() {
+        return true;
+    }
+}
@@ -0,0 +1,52 @@
+package com.app.shambabora.modules.collaboration.repository;
+
+import com.app.shambabora.modules.collaboration.entity.ConversationSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, Long> {
+
+    // Inbox page: range scan on (user_id, last_message_at, last_message_id)
+    Page<ConversationSummary> findByUserIdOrderByLastMessageAtDescLastMessageIdDesc(Long userId, Pageable pageable);
+
+    /**
+     * Records a message on one side of a conversation. The "last message" columns only move
+     * forward (a late commit of an older message cannot overwrite a newer one); MySQL applies the
+     * assignments left to right, so last_message_id must be updated last.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO conversation_summaries " +
+           "(user_id, partner_id, last_message_id, last_sender_id, last_message_preview, last_message_type, last_message_at, unread_count, updated_at) " +
+           "VALUES (:userId, :partnerId, :messageId, :senderId, :preview, :messageType, :sentAt, :unreadDelta, :now) " +
+           "ON DUPLICATE KEY UPDATE " +
+           "last_sender_id = IF(VALUES(last_message_id) > last_message_id, VALUES(last_sender_id), last_sender_id), " +
+           "last_message_preview = IF(VALUES(last_message_id) > last_message_id, VALUES(last_message_preview), last_message_preview), " +
+           "last_message_type = IF(VALUES(last_message_id) > last_message_id, VALUES(last_message_type), last_message_type), " +
+           "last_message_at = IF(VALUES(last_message_id) > last_message_id, VALUES(last_message_at), last_message_at), " +
+           "unread_count = unread_count + VALUES(unread_count), " +
+           "updated_at = VALUES(updated_at), " +
+           "last_message_id = GREATEST(last_message_id, VALUES(last_message_id))",
+           nativeQuery = true)
+    int upsertMessage(@Param("userId") Long userId, @Param("partnerId") Long partnerId, @Param("messageId") Long messageId,
+                      @Param("senderId") Long senderId, @Param("preview") String preview, @Param("messageType") String messageType,
+                      @Param("sentAt") Instant sentAt, @Param("unreadDelta") long unreadDelta, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE ConversationSummary cs SET cs.unreadCount = CASE WHEN cs.unreadCount > :count THEN cs.unreadCount - :count ELSE 0 END, " +
+           "cs.updatedAt = :now WHERE cs.userId = :userId AND cs.partnerId = :partnerId")
+    int decrementUnread(@Param("userId") Long userId, @Param("partnerId") Long partnerId,
+                        @Param("count") long count, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE ConversationSummary cs SET cs.unreadCount = 0, cs.updatedAt = :now " +
+           "WHERE cs.userId = :userId AND cs.partnerId = :partnerId AND cs.unreadCount > 0")
+    int clearUnread(@Param("userId") Long userId, @Param("partnerId") Long partnerId, @Param("now") Instant now);
+}
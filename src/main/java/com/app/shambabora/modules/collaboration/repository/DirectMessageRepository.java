@@ -4,6 +4,7 @@ import com.app.shambabora.modules.collaboration.entity.DirectMessage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,34 +15,51 @@ import java.util.List;
 @Repository
 public interface DirectMessageRepository extends JpaRepository<DirectMessage, Long> {
     
+    // Conversation queries filter on the canonical key so they are one range of
+    // idx_direct_messages_conversation (conversation_key, created_at, id); see DirectMessage.conversationKey
+    
     // Get conversation between two users
-    @Query("SELECT dm FROM DirectMessage dm WHERE " +
-           "((dm.senderId = :userId1 AND dm.recipientId = :userId2) OR " +
-           "(dm.senderId = :userId2 AND dm.recipientId = :userId1)) " +
-           "ORDER BY dm.createdAt ASC")
-    Page<DirectMessage> findConversation(@Param("userId1") Long userId1, @Param("userId2") Long userId2, Pageable pageable);
-    
-    // Get recent conversations for a user
-    @Query("SELECT dm FROM DirectMessage dm WHERE dm.id IN " +
-           "(SELECT MAX(dm2.id) FROM DirectMessage dm2 WHERE " +
-           "(dm2.senderId = :userId OR dm2.recipientId = :userId) " +
-           "GROUP BY CASE WHEN dm2.senderId = :userId THEN dm2.recipientId ELSE dm2.senderId END) " +
-           "ORDER BY dm.createdAt DESC")
-    Page<DirectMessage> findRecentConversations(@Param("userId") Long userId, Pageable pageable);
+    @Query("SELECT dm FROM DirectMessage dm WHERE dm.conversationKey = :conversationKey " +
+           "ORDER BY dm.createdAt ASC, dm.id ASC")
+    Page<DirectMessage> findConversation(@Param("conversationKey") String conversationKey, Pageable pageable);
+    
+    // Keyset page of a conversation, newest first, for scrolling back through history
+    @Query("SELECT dm FROM DirectMessage dm WHERE dm.conversationKey = :conversationKey " +
+           "AND (:createdAt IS NULL OR dm.createdAt < :createdAt OR (dm.createdAt = :createdAt AND dm.id < :id)) " +
+           "ORDER BY dm.createdAt DESC, dm.id DESC")
+    List<DirectMessage> findConversationBefore(@Param("conversationKey") String conversationKey,
+                                               @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
     
     // Get unread messages for a user
     @Query("SELECT dm FROM DirectMessage dm WHERE dm.recipientId = :userId AND dm.readAt IS NULL ORDER BY dm.createdAt ASC")
     List<DirectMessage> findUnreadMessages(@Param("userId") Long userId);
     
+    // Mark one sender's unread messages to a recipient as read in a single statement
+    @Modifying
+    @Query("UPDATE DirectMessage dm SET dm.readAt = :readAt, dm.status = :status " +
+           "WHERE dm.recipientId = :recipientId AND dm.senderId = :senderId AND dm.readAt IS NULL AND dm.id <= :upToId")
+    int markConversationRead(@Param("recipientId") Long recipientId, @Param("senderId") Long senderId, @Param("upToId") Long upToId,
+                             @Param("status") DirectMessage.MessageStatus status, @Param("readAt") Instant readAt);
+    
     // Count unread messages for a user
     long countByRecipientIdAndReadAtIsNull(Long userId);
     
     // Get messages after a specific timestamp (for real-time updates)
-    @Query("SELECT dm FROM DirectMessage dm WHERE " +
-           "((dm.senderId = :userId1 AND dm.recipientId = :userId2) OR " +
-           "(dm.senderId = :userId2 AND dm.recipientId = :userId1)) " +
-           "AND dm.createdAt > :since ORDER BY dm.createdAt ASC")
-    List<DirectMessage> findMessagesAfter(@Param("userId1") Long userId1, @Param("userId2") Long userId2, @Param("since") Instant since);
+    @Query("SELECT dm FROM DirectMessage dm WHERE dm.conversationKey = :conversationKey " +
+           "AND dm.createdAt > :since ORDER BY dm.createdAt ASC, dm.id ASC")
+    List<DirectMessage> findMessagesAfter(@Param("conversationKey") String conversationKey, @Param("since") Instant since);
+    
+    // Messages delivered to a user after a known id (long-poll / SSE catch-up)
+    List<DirectMessage> findByRecipientIdAndIdGreaterThanOrderByIdAsc(Long recipientId, Long id, Pageable pageable);
+    
+    // Conversations with messages old enough to move to the cold-storage archive
+    @Query("SELECT DISTINCT dm.conversationKey FROM DirectMessage dm WHERE dm.createdAt < :cutoff")
+    List<String> findConversationKeysWithMessagesBefore(@Param("cutoff") Instant cutoff, Pageable pageable);
+    
+    // Oldest messages of a conversation created before the cutoff, in archive order
+    List<DirectMessage> findByConversationKeyAndCreatedAtBeforeOrderByCreatedAtAscIdAsc(String conversationKey, Instant cutoff, Pageable pageable);
+    
+    long countByConversationKey(String conversationKey);
     
     // Get all users who have conversations with a user
     @Query("SELECT DISTINCT CASE WHEN dm.senderId = :userId THEN dm.recipientId ELSE dm.senderId END " +
@@ -4,7 +4,17 @@ import com.app.shambabora.modules.collaboration.entity.Message;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
     Page<Message> findByGroupIdOrderBySentAtDesc(Long groupId, Pageable pageable);
+
+    // Keyset page (newest first) for cursor pagination; a null sentAt means the first page
+    @Query("SELECT m FROM Message m WHERE m.groupId = :groupId " +
+           "AND (:sentAt IS NULL OR m.sentAt < :sentAt OR (m.sentAt = :sentAt AND m.id < :id)) ORDER BY m.sentAt DESC, m.id DESC")
+    List<Message> findByGroupIdBefore(@Param("groupId") Long groupId, @Param("sentAt") Instant sentAt, @Param("id") Long id, Pageable pageable);
 } 
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.app.shambabora.modules.collaboration.repository;
+
+import com.app.shambabora.modules.collaboration.entity.ModerationTerm;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ModerationTermRepository extends JpaRepository<ModerationTerm, Long> {
+    
+    List<ModerationTerm> findByActiveTrue();
+    
+    List<ModerationTerm> findAllByOrderByTypeAscTermAsc();
+    
+    boolean existsByTermIgnoreCaseAndType(String term, ModerationTerm.TermType type);
+}
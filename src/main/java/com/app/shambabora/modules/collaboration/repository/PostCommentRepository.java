@@ -4,10 +4,13 @@ import com.app.shambabora.modules.collaboration.entity.PostComment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,6 +19,15 @@ public interface PostCommentRepository extends JpaRepository<PostComment, Long>
     // Changed to remove hardcoded sorting - now uses Pageable's sort parameter
     Page<PostComment> findByPostIdAndStatus(Long postId, PostComment.CommentStatus status, Pageable pageable);
     
+    // Keyset page (oldest first) for cursor pagination; a null createdAt means the first page
+    @Query("SELECT pc FROM PostComment pc WHERE pc.post.id = :postId AND pc.status = :status " +
+           "AND (:createdAt IS NULL OR pc.createdAt > :createdAt OR (pc.createdAt = :createdAt AND pc.id > :id)) ORDER BY pc.createdAt ASC, pc.id ASC")
+    List<PostComment> findByPostIdAndStatusAfter(@Param("postId") Long postId, @Param("status") PostComment.CommentStatus status,
+                                                 @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+    
+    // Whole discussion of a post in one ordered scan, for assembling reply trees in memory
+    List<PostComment> findByPostIdAndStatusOrderByCreatedAtAscIdAsc(Long postId, PostComment.CommentStatus status);
+    
     List<PostComment> findByPostIdAndParentCommentIdIsNullAndStatusOrderByCreatedAtAsc(Long postId, PostComment.CommentStatus status);
     
     List<PostComment> findByParentCommentIdAndStatusOrderByCreatedAtAsc(Long parentCommentId, PostComment.CommentStatus status);
@@ -26,6 +38,27 @@ public interface PostCommentRepository extends JpaRepository<PostComment, Long>
     
     Page<PostComment> findByStatusOrderByCreatedAtDesc(PostComment.CommentStatus status, Pageable pageable);
     
+    // Lightweight rows (id, content, status, groupId) for rebuilding the search index
+    @Query("SELECT pc.id, pc.content, pc.status, p.groupId FROM PostComment pc JOIN pc.post p ORDER BY pc.id")
+    List<Object[]> findIndexRows(Pageable pageable);
+    
     @Query("SELECT pc FROM PostComment pc WHERE pc.content LIKE %:keyword% AND pc.status = :status ORDER BY pc.createdAt DESC")
     Page<PostComment> findByContentContainingAndStatus(@Param("keyword") String keyword, @Param("status") PostComment.CommentStatus status, Pageable pageable);
+    
+    // Rows (id, status, postId, groupId) needed to moderate comments in bulk without loading posts
+    @Query("SELECT pc.id, pc.status, p.id, p.groupId FROM PostComment pc JOIN pc.post p WHERE pc.id IN :ids")
+    List<Object[]> findModerationRows(@Param("ids") Collection<Long> ids);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE PostComment pc SET pc.status = :status, pc.moderatedBy = :moderatorId, pc.moderationNotes = :notes, pc.updatedAt = :now WHERE pc.id IN :ids")
+    int updateModeration(@Param("ids") Collection<Long> ids, @Param("status") PostComment.CommentStatus status,
+                         @Param("moderatorId") Long moderatorId, @Param("notes") String notes, @Param("now") Instant now);
+    
+    // (id, createdAt) rows for loading the moderation work queue
+    @Query("SELECT pc.id, pc.createdAt FROM PostComment pc WHERE pc.status = :status")
+    List<Object[]> findIdAndCreatedAtByStatus(@Param("status") PostComment.CommentStatus status);
+    
+    // (status, count) rows for all statuses in one scan
+    @Query("SELECT pc.status, COUNT(pc) FROM PostComment pc GROUP BY pc.status")
+    List<Object[]> countGroupByStatus();
 }
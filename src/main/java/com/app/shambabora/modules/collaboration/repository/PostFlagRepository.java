@@ -0,0 +1,15 @@
+package com.app.shambabora.modules.collaboration.repository;
+
+import com.app.shambabora.modules.collaboration.entity.PostFlag;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PostFlagRepository extends JpaRepository<PostFlag, Long> {
+    
+    Page<PostFlag> findByPostIdOrderByCreatedAtDesc(Long postId, Pageable pageable);
+    
+    long countByPostId(Long postId);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +23,8 @@ public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
     List<Long> findUserIdsByPostId(@Param("postId") Long postId);
     
     void deleteByPostIdAndUserId(Long postId, Long userId);
+    
+    // Batch helper for feed hydration: one query per page instead of one per post
+    @Query("SELECT pl.post.id FROM PostLike pl WHERE pl.userId = :userId AND pl.post.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
 }
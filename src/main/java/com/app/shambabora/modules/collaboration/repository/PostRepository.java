@@ -4,10 +4,13 @@ import com.app.shambabora.modules.collaboration.entity.Post;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -40,14 +43,61 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     @Query("SELECT p FROM Post p WHERE (p.groupId IN :groupIds OR p.groupId IS NULL) AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.HIDDEN AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.REJECTED ORDER BY p.createdAt DESC")
     Page<Post> findFeedAllVisible(@Param("groupIds") List<Long> groupIds, Pageable pageable);
 
+    // (groupId, count) of visible posts per group, for sizing the home feed
+    @Query("SELECT p.groupId, COUNT(p) FROM Post p WHERE p.groupId IN :groupIds AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.HIDDEN AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.REJECTED GROUP BY p.groupId")
+    List<Object[]> countVisibleGroupByGroupIdIn(@Param("groupIds") Collection<Long> groupIds);
+
+    @Query("SELECT COUNT(p) FROM Post p WHERE p.groupId IS NULL AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.HIDDEN AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.REJECTED")
+    long countGeneralVisible();
+
+    // Newest visible post ids across a set of groups, used to materialize home timelines
+    @Query("SELECT p.id FROM Post p WHERE p.groupId IN :groupIds AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.HIDDEN AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.REJECTED ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findVisibleIdsByGroupIdIn(@Param("groupIds") List<Long> groupIds, Pageable pageable);
+
+    // (id, createdAt) of the visible posts among the given ids, for ranking materialized timeline entries
+    @Query("SELECT p.id, p.createdAt FROM Post p WHERE p.id IN :ids AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.HIDDEN AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.REJECTED")
+    List<Object[]> findVisibleIdAndCreatedAtByIdIn(@Param("ids") Collection<Long> ids);
+
     // New: Get all visible posts for a group (exclude HIDDEN and REJECTED)
     @Query("SELECT p FROM Post p WHERE p.groupId = :groupId AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.HIDDEN AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.REJECTED ORDER BY p.createdAt DESC")
     Page<Post> findGroupAllVisible(@Param("groupId") Long groupId, Pageable pageable);
     
+    // Keyset pages (newest first) for cursor pagination; a null createdAt means the first page.
+    // Returned as lists so no COUNT query is issued.
+    @Query("SELECT p FROM Post p WHERE p.groupId IS NULL AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.HIDDEN AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.REJECTED " +
+           "AND (:createdAt IS NULL OR p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findGeneralVisibleBefore(@Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Post p WHERE p.groupId IN :groupIds AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.HIDDEN AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.REJECTED " +
+           "AND (:createdAt IS NULL OR p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findGroupsVisibleBefore(@Param("groupIds") List<Long> groupIds, @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Post p WHERE p.groupId = :groupId AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.HIDDEN AND p.status <> com.app.shambabora.modules.collaboration.entity.Post$PostStatus.REJECTED " +
+           "AND (:createdAt IS NULL OR p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findGroupVisibleBefore(@Param("groupId") Long groupId, @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+    
     // Count posts by status
     long countByStatus(Post.PostStatus status);
     
     // Get trending posts (most liked in last 7 days)
     @Query("SELECT p FROM Post p WHERE p.status = :status AND p.createdAt >= :since ORDER BY SIZE(p.likes) DESC")
     Page<Post> findTrendingPosts(@Param("status") Post.PostStatus status, @Param("since") java.time.Instant since, Pageable pageable);
+    
+    // Bulk moderation: set-based status change in one statement (bypasses @UpdateTimestamp, so updatedAt is passed in)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Post p SET p.status = :status, p.moderatedBy = :moderatorId, p.moderationNotes = :notes, p.updatedAt = :now WHERE p.id IN :ids")
+    int updateModeration(@Param("ids") Collection<Long> ids, @Param("status") Post.PostStatus status,
+                         @Param("moderatorId") Long moderatorId, @Param("notes") String notes, @Param("now") Instant now);
+    
+    // (id, createdAt) rows for loading the moderation work queue
+    @Query("SELECT p.id, p.createdAt FROM Post p WHERE p.status = :status")
+    List<Object[]> findIdAndCreatedAtByStatus(@Param("status") Post.PostStatus status);
+    
+    // (id, groupId, content, createdAt) of recent posts, oldest first, for warming up duplicate detection
+    @Query("SELECT p.id, p.groupId, p.content, p.createdAt FROM Post p WHERE p.createdAt >= :since ORDER BY p.createdAt ASC")
+    List<Object[]> findFingerprintRowsSince(@Param("since") Instant since);
+    
+    // (status, count) rows for all statuses in one scan
+    @Query("SELECT p.status, COUNT(p) FROM Post p GROUP BY p.status")
+    List<Object[]> countGroupByStatus();
 }
@@ -0,0 +1,21 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Small events between API nodes for state that each node keeps in memory (poll mailboxes,
+ * home timelines, unread counters).
+ *
+ * An event is a channel name plus a few longs (ids, deltas). It reaches every other node but
+ * never comes back to the publisher, which applies the change locally itself. Delivery is
+ * best effort; every consumer also bounds staleness on its own (TTLs, database reads).
+ */
+public interface ClusterEventBus {
+
+    void publish(String channel, long... values);
+
+    /**
+     * Registers a handler for events published on the channel by other nodes.
+     */
+    void subscribe(String channel, Consumer<long[]> handler);
+}
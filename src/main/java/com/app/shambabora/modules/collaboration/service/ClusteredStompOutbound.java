@@ -0,0 +1,114 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Profile;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Multi-node outbound: every message is published to the cluster transport and each node
+ * delivers it to its own sessions.
+ *
+ * The payload is serialized once by the sending node (JSON, or UTF-8 text for plain strings)
+ * and passed through unchanged.
+ * The sending node delivers locally straight away and ignores its own copy when it comes back
+ * from the transport; other nodes deliver only if {@link StompSubscriptionRegistry} shows a
+ * local subscriber for the destination.
+ */
+@Component
+@Profile("ws")
+@ConditionalOnExpression("'${app.ws.cluster.transport:none}' != 'none'")
+@RequiredArgsConstructor
+@Slf4j
+public class ClusteredStompOutbound implements StompOutbound {
+
+    private static final String TEXT_PLAIN_UTF8 = "text/plain;charset=UTF-8";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final StompSubscriptionRegistry subscriptionRegistry;
+    private final StompClusterTransport clusterTransport;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.ws.cluster.node-id:}")
+    private String nodeId;
+
+    @PostConstruct
+    public void start() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+        clusterTransport.onReceive(this::receive);
+        log.info("Clustered WebSocket delivery enabled, node id {}", nodeId);
+    }
+
+    @Override
+    public void send(String destination, Object payload) {
+        publish(envelope(destination, null, payload));
+    }
+
+    @Override
+    public void sendToUser(String user, String destination, Object payload) {
+        publish(envelope(destination, user, payload));
+    }
+
+    private void publish(StompEnvelope envelope) {
+        deliverLocally(envelope);
+        try {
+            clusterTransport.publish(envelope);
+        } catch (RuntimeException e) {
+            log.error("Failed to publish {} to the cluster; only local sessions received it", envelope.getDestination(), e);
+        }
+    }
+
+    private void receive(StompEnvelope envelope) {
+        if (nodeId.equals(envelope.getOriginNodeId())) {
+            return;
+        }
+        deliverLocally(envelope);
+    }
+
+    private void deliverLocally(StompEnvelope envelope) {
+        String user = envelope.getUser();
+        boolean subscribed = user != null
+                ? subscriptionRegistry.hasUserSubscribers(user, envelope.getDestination())
+                : subscriptionRegistry.hasSubscribers(envelope.getDestination());
+        if (!subscribed) {
+            return;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.parseMimeType(envelope.getContentType()));
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(envelope.getPayload(), accessor.getMessageHeaders());
+        String destination = user != null
+                ? messagingTemplate.getUserDestinationPrefix() + user + envelope.getDestination()
+                : envelope.getDestination();
+        messagingTemplate.send(destination, message);
+    }
+
+    private StompEnvelope envelope(String destination, String user, Object payload) {
+        if (payload instanceof String) {
+            return new StompEnvelope(nodeId, destination, user, TEXT_PLAIN_UTF8,
+                    ((String) payload).getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            return new StompEnvelope(nodeId, destination, user, MimeTypeUtils.APPLICATION_JSON_VALUE,
+                    objectMapper.writeValueAsBytes(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize WebSocket payload " + payload.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.common.api.PageResponse;
+import com.app.shambabora.modules.collaboration.dto.CommentThreadDTO;
+import com.app.shambabora.modules.collaboration.dto.PostCommentDTO;
+import com.app.shambabora.modules.collaboration.entity.PostComment;
+import com.app.shambabora.service.UserDirectory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds reply trees from the flat, oldest-first list of a post's comments.
+ *
+ * Children are grouped by parent id in one pass and the tree is walked once, so assembly is
+ * O(n) in the number of comments. Replies nested deeper than {@code app.comments.thread-max-depth}
+ * are attached to their ancestor at the maximum depth, in conversation order. Only the
+ * requested page of top-level threads is mapped to DTOs.
+ */
+@Component
+@RequiredArgsConstructor
+public class CommentThreadAssembler {
+
+    private final UserDirectory userDirectory;
+
+    @Value("${app.comments.thread-max-depth:5}")
+    private int maxDepth;
+
+    public PageResponse<CommentThreadDTO> assemble(List<PostComment> comments, int page, int size) {
+        Map<Long, PostComment> byId = new HashMap<>(comments.size() * 2);
+        for (PostComment comment : comments) {
+            byId.put(comment.getId(), comment);
+        }
+
+        // Comments whose parent is missing (e.g. hidden by a moderator) become top-level threads
+        List<PostComment> roots = new ArrayList<>();
+        Map<Long, List<PostComment>> children = new HashMap<>();
+        for (PostComment comment : comments) {
+            Long parentId = comment.getParentCommentId();
+            if (parentId == null || !byId.containsKey(parentId) || parentId.equals(comment.getId())) {
+                roots.add(comment);
+            } else {
+                children.computeIfAbsent(parentId, id -> new ArrayList<>()).add(comment);
+            }
+        }
+
+        int from = Math.min(page * size, roots.size());
+        int to = Math.min(from + size, roots.size());
+        List<PostComment> pageRoots = roots.subList(from, to);
+
+        int depthLimit = Math.max(1, maxDepth);
+
+        // Walk each thread once: preorder to place nodes, then reverse preorder to sum reply counts
+        List<Node> preorder = new ArrayList<>();
+        List<Node> threads = new ArrayList<>(pageRoots.size());
+        Deque<Node> stack = new ArrayDeque<>();
+        for (PostComment root : pageRoots) {
+            Node rootNode = new Node(root, null, null, 0);
+            threads.add(rootNode);
+            stack.push(rootNode);
+            while (!stack.isEmpty()) {
+                Node node = stack.pop();
+                preorder.add(node);
+                if (node.displayParent != null) {
+                    node.displayParent.replies.add(node);
+                }
+                List<PostComment> replies = children.getOrDefault(node.comment.getId(), List.of());
+                // Push in reverse so replies are visited, and therefore attached, oldest first
+                for (int i = replies.size() - 1; i >= 0; i--) {
+                    Node displayParent = node.depth < depthLimit ? node : node.displayParent;
+                    int depth = Math.min(node.depth + 1, depthLimit);
+                    stack.push(new Node(replies.get(i), node, displayParent, depth));
+                }
+            }
+        }
+        for (int i = preorder.size() - 1; i >= 0; i--) {
+            Node node = preorder.get(i);
+            if (node.parent != null) {
+                node.parent.replyCount += node.replyCount + 1;
+            }
+        }
+
+        Set<Long> authorIds = new HashSet<>();
+        for (Node node : preorder) {
+            authorIds.add(node.comment.getAuthorId());
+        }
+        Map<Long, UserDirectory.UserSummary> authors = userDirectory.resolve(authorIds);
+
+        List<CommentThreadDTO> content = new ArrayList<>(threads.size());
+        for (Node thread : threads) {
+            content.add(toDTO(thread, authors));
+        }
+
+        int totalPages = size == 0 ? 0 : (roots.size() + size - 1) / size;
+        return PageResponse.<CommentThreadDTO>builder()
+                .content(content)
+                .page(page)
+                .size(size)
+                .totalElements(roots.size())
+                .totalPages(totalPages)
+                .build();
+    }
+
+    private CommentThreadDTO toDTO(Node root, Map<Long, UserDirectory.UserSummary> authors) {
+        // Iterative to stay safe on long flattened chains
+        CommentThreadDTO rootDTO = newDTO(root, authors);
+        Deque<Object[]> stack = new ArrayDeque<>();
+        stack.push(new Object[]{root, rootDTO});
+        while (!stack.isEmpty()) {
+            Object[] entry = stack.pop();
+            Node node = (Node) entry[0];
+            CommentThreadDTO dto = (CommentThreadDTO) entry[1];
+            for (Node reply : node.replies) {
+                CommentThreadDTO replyDTO = newDTO(reply, authors);
+                dto.getReplies().add(replyDTO);
+                stack.push(new Object[]{reply, replyDTO});
+            }
+        }
+        return rootDTO;
+    }
+
+    private CommentThreadDTO newDTO(Node node, Map<Long, UserDirectory.UserSummary> authors) {
+        PostComment comment = node.comment;
+        PostCommentDTO commentDTO = PostCommentDTO.builder()
+                .id(comment.getId())
+                .postId(comment.getPost().getId())
+                .authorId(comment.getAuthorId())
+                .authorName(authors.get(comment.getAuthorId()).getDisplayName())
+                .authorAvatarUrl(authors.get(comment.getAuthorId()).getAvatarUrl())
+                .content(comment.getContent())
+                .parentCommentId(comment.getParentCommentId())
+                .status(comment.getStatus())
+                .moderatedBy(comment.getModeratedBy())
+                .createdAt(comment.getCreatedAt())
+                .updatedAt(comment.getUpdatedAt())
+                .build();
+        return CommentThreadDTO.builder()
+                .comment(commentDTO)
+                .depth(node.depth)
+                .replyCount(node.replyCount)
+                .replies(new ArrayList<>(node.replies.size()))
+                .build();
+    }
+
+    private static final class Node {
+        private final PostComment comment;
+        private final Node parent;
+        private final Node displayParent;
+        private final int depth;
+        private final List<Node> replies = new ArrayList<>();
+        private int replyCount;
+
+        Node(PostComment comment, Node parent, Node displayParent, int depth) {
+            this.comment = comment;
+            this.parent = parent;
+            this.displayParent = displayParent;
+            this.depth = depth;
+        }
+    }
+}
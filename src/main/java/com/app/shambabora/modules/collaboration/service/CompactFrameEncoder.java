@@ -0,0 +1,159 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Re-encodes JSON WebSocket payloads as CBOR or Smile with short field names.
+ *
+ * Field names are shortened with a fixed dictionary ({@link #FIELD_DICTIONARY_VERSION});
+ * clients fetch it once by subscribing to {@code /app/encoding.fields}. The broker hands the
+ * same payload array to every subscriber of a topic, so encodings are cached by payload
+ * identity and a broadcast is converted once per encoding rather than once per session.
+ *
+ * Every delivery records its JSON and encoded size in {@code ws.encoding.json.bytes} and
+ * {@code ws.encoding.encoded.bytes}, tagged with the encoding and the destination with ids
+ * removed, so savings can be compared per message type.
+ */
+@Component
+@Profile("ws")
+@RequiredArgsConstructor
+public class CompactFrameEncoder {
+
+    public static final int FIELD_DICTIONARY_VERSION = 1;
+
+    private static final Map<String, String> SHORT_NAMES = shortNames();
+    private static final Pattern IDS = Pattern.compile("\\d+");
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.ws.encoding.cache-size:256}")
+    private int cacheSize;
+
+    private final ObjectMapper cborMapper = new CBORMapper();
+    private final ObjectMapper smileMapper = new SmileMapper();
+
+    // Access-ordered LRU keyed by payload identity; guarded by itself
+    private final LinkedHashMap<CacheKey, byte[]> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, byte[]> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    /**
+     * The dictionary as [long name, short name] pairs.
+     */
+    public List<List<String>> getFieldDictionary() {
+        List<List<String>> pairs = new ArrayList<>(SHORT_NAMES.size());
+        SHORT_NAMES.forEach((name, shortName) -> pairs.add(List.of(name, shortName)));
+        return pairs;
+    }
+
+    public byte[] encode(byte[] json, StompEncoding encoding, String destination) throws IOException {
+        CacheKey key = new CacheKey(json, encoding);
+        byte[] encoded;
+        synchronized (cache) {
+            encoded = cache.get(key);
+        }
+        if (encoded == null) {
+            JsonNode tree = shorten(objectMapper.readTree(json));
+            encoded = (encoding == StompEncoding.SMILE ? smileMapper : cborMapper).writeValueAsBytes(tree);
+            synchronized (cache) {
+                cache.put(key, encoded);
+            }
+        }
+        String type = destination != null ? IDS.matcher(destination).replaceAll("{id}") : "unknown";
+        String format = encoding.getHeaderValue();
+        meterRegistry.counter("ws.encoding.json.bytes", "encoding", format, "type", type).increment(json.length);
+        meterRegistry.counter("ws.encoding.encoded.bytes", "encoding", format, "type", type).increment(encoded.length);
+        return encoded;
+    }
+
+    private static JsonNode shorten(JsonNode node) {
+        if (node.isObject()) {
+            ObjectNode shortened = ((ObjectNode) node).objectNode();
+            for (Map.Entry<String, JsonNode> field : node.properties()) {
+                shortened.set(SHORT_NAMES.getOrDefault(field.getKey(), field.getKey()), shorten(field.getValue()));
+            }
+            return shortened;
+        }
+        if (node.isArray()) {
+            ArrayNode shortened = ((ArrayNode) node).arrayNode(node.size());
+            for (JsonNode element : node) {
+                shortened.add(shorten(element));
+            }
+            return shortened;
+        }
+        return node;
+    }
+
+    // Fields of the DTOs and notification wrappers sent over WebSockets. Append only: changing
+    // or removing an entry breaks clients and needs a new FIELD_DICTIONARY_VERSION.
+    private static Map<String, String> shortNames() {
+        String[][] pairs = {
+                {"id", "i"}, {"postId", "pi"}, {"userId", "ui"}, {"groupId", "gi"}, {"authorId", "ai"},
+                {"senderId", "si"}, {"recipientId", "ri"}, {"parentCommentId", "pci"},
+                {"content", "c"}, {"imageUrl", "img"}, {"createdAt", "ca"}, {"updatedAt", "ua"},
+                {"readAt", "ra"}, {"joinedAt", "ja"}, {"timestamp", "ts"}, {"status", "st"},
+                {"action", "ac"}, {"messageType", "mt"}, {"postType", "pt"}, {"role", "rl"},
+                {"authorName", "an"}, {"authorAvatarUrl", "aav"}, {"senderName", "sn"},
+                {"senderAvatarUrl", "sav"}, {"recipientName", "rn"}, {"recipientAvatarUrl", "rav"},
+                {"userName", "un"}, {"userAvatarUrl", "uav"}, {"groupName", "gn"},
+                {"likeCount", "lc"}, {"commentCount", "cc"}, {"likedByCurrentUser", "lk"},
+                {"recentComments", "rc"}, {"moderationNotes", "mn"}, {"moderatedBy", "mb"},
+                {"invitedBy", "ib"}, {"invitedByName", "ibn"}, {"likesAdded", "la"},
+                {"likesRemoved", "lr"}, {"likeDelta", "ld"}, {"newComments", "nc"}, {"summary", "sm"},
+                {"unreadCount", "uc"}, {"updateType", "ut"}, {"data", "d"}, {"notes", "nt"},
+                {"postIds", "pis"}, {"commentIds", "cis"}
+        };
+        Map<String, String> names = new LinkedHashMap<>();
+        for (String[] pair : pairs) {
+            if (names.containsValue(pair[1]) || names.put(pair[0], pair[1]) != null) {
+                throw new IllegalStateException("Duplicate field dictionary entry " + pair[0] + " -> " + pair[1]);
+            }
+        }
+        return Collections.unmodifiableMap(names);
+    }
+
+    private static final class CacheKey {
+        private final byte[] payload;
+        private final StompEncoding encoding;
+
+        CacheKey(byte[] payload, StompEncoding encoding) {
+            this.payload = payload;
+            this.encoding = encoding;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CacheKey)) return false;
+            CacheKey other = (CacheKey) o;
+            return payload == other.payload && encoding == other.encoding;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(payload) + encoding.hashCode();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.modules.collaboration.entity.ModerationTerm;
+import com.app.shambabora.modules.collaboration.repository.ModerationTermRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Pre-moderation screen for new posts and comments.
+ *
+ * Words and scam phrases from the admin-managed {@link ModerationTerm} list are compiled into
+ * one Aho-Corasick automaton and matched on word boundaries against a lower-cased copy of the
+ * text. Phone-number patterns ('#' = any digit) are compiled into a second automaton that runs
+ * over a view of the text where digits are masked and separators inside numbers are removed;
+ * candidates are then checked against the literal digits of the pattern. The compiled rules
+ * are swapped atomically on reload, so screening never blocks on an update.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ContentPreScreener {
+
+    private static final char DIGIT = '#';
+
+    private final ModerationTermRepository moderationTermRepository;
+
+    @Value("${app.moderation.prescreen-enabled:true}")
+    private boolean enabled;
+
+    private volatile Rules rules = Rules.EMPTY;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the distinct terms found in the text, in order of first occurrence.
+     */
+    public List<String> screen(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        Rules current = rules;
+        Set<String> hits = new LinkedHashSet<>();
+
+        if (!current.words.isEmpty()) {
+            String normalized = normalizeWords(text);
+            current.words.scan(normalized, (pattern, start, end) -> {
+                if (isWordBoundary(normalized, start - 1) && isWordBoundary(normalized, end)) {
+                    hits.add(current.wordTerms.get(pattern));
+                }
+            });
+        }
+
+        if (!current.phones.isEmpty()) {
+            StringBuilder literal = new StringBuilder(text.length());
+            String masked = maskDigits(text, literal);
+            current.phones.scan(masked, (pattern, start, end) -> {
+                if (!isNumberChar(masked, start - 1) && !isNumberChar(masked, end)
+                        && matchesLiteral(current.phonePatterns.get(pattern), literal, start)) {
+                    hits.add(current.phoneTerms.get(pattern));
+                }
+            });
+        }
+        return new ArrayList<>(hits);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * Recompiles the automata from the active terms. Runs on a timer as well so that edits made
+     * through another instance are picked up without a restart.
+     */
+    @Scheduled(fixedDelayString = "${app.moderation.terms-reload-ms:60000}", initialDelayString = "${app.moderation.terms-reload-ms:60000}")
+    public void reload() {
+        List<String> wordPatterns = new ArrayList<>();
+        List<String> wordTerms = new ArrayList<>();
+        List<String> phoneMasks = new ArrayList<>();
+        List<String> phonePatterns = new ArrayList<>();
+        List<String> phoneTerms = new ArrayList<>();
+        for (ModerationTerm term : moderationTermRepository.findByActiveTrue()) {
+            if (term.getType() == ModerationTerm.TermType.PHONE_PATTERN) {
+                String pattern = normalizePhonePattern(term.getTerm());
+                if (!pattern.isEmpty()) {
+                    phonePatterns.add(pattern);
+                    phoneMasks.add(pattern.replaceAll("[0-9]", String.valueOf(DIGIT)));
+                    phoneTerms.add(term.getTerm());
+                }
+            } else {
+                String pattern = normalizeWords(term.getTerm()).trim();
+                if (!pattern.isEmpty()) {
+                    wordPatterns.add(pattern);
+                    wordTerms.add(term.getTerm());
+                }
+            }
+        }
+        rules = new Rules(TermAutomaton.build(wordPatterns), wordTerms,
+                TermAutomaton.build(phoneMasks), phonePatterns, phoneTerms);
+        log.debug("Compiled pre-screen rules: {} words/phrases, {} phone patterns", wordTerms.size(), phoneTerms.size());
+    }
+
+    /**
+     * Keeps digits, '#' and '+' and drops separators, e.g. "+254 7## ###-###" -> "+2547########".
+     */
+    static String normalizePhonePattern(String pattern) {
+        StringBuilder sb = new StringBuilder(pattern.length());
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (Character.isDigit(c) || c == DIGIT || c == '+') {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String normalizeWords(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(lower.length());
+        boolean space = false;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(c);
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Builds the digit-masked view used for phone patterns. {@code literal} receives the
+     * unmasked characters at the same positions so candidates can be verified.
+     */
+    private static String maskDigits(String text, StringBuilder literal) {
+        StringBuilder masked = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isDigit(c)) {
+                masked.append(DIGIT);
+                literal.append(c);
+            } else if (c == '+') {
+                masked.append('+');
+                literal.append('+');
+            } else if (isSeparator(c) && masked.length() > 0 && isNumberChar(masked, masked.length() - 1)
+                    && i + 1 < text.length() && Character.isDigit(text.charAt(i + 1))) {
+                // Separator inside a number ("0712 345-678"); skip it
+                continue;
+            } else {
+                masked.append(' ');
+                literal.append(' ');
+            }
+        }
+        return masked.toString();
+    }
+
+    private static boolean matchesLiteral(String pattern, CharSequence literal, int start) {
+        for (int i = 0; i < pattern.length(); i++) {
+            char p = pattern.charAt(i);
+            if (p != DIGIT && p != literal.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '-' || c == '.' || c == '(' || c == ')';
+    }
+
+    private static boolean isWordBoundary(CharSequence text, int index) {
+        return index < 0 || index >= text.length() || text.charAt(index) == ' ';
+    }
+
+    private static boolean isNumberChar(CharSequence text, int index) {
+        return index >= 0 && index < text.length() && (text.charAt(index) == DIGIT || text.charAt(index) == '+');
+    }
+
+    private static final class Rules {
+        private static final Rules EMPTY = new Rules(TermAutomaton.build(List.of()), List.of(),
+                TermAutomaton.build(List.of()), List.of(), List.of());
+
+        private final TermAutomaton words;
+        private final List<String> wordTerms;
+        private final TermAutomaton phones;
+        private final List<String> phonePatterns;
+        private final List<String> phoneTerms;
+
+        Rules(TermAutomaton words, List<String> wordTerms, TermAutomaton phones,
+              List<String> phonePatterns, List<String> phoneTerms) {
+            this.words = words;
+            this.wordTerms = wordTerms;
+            this.phones = phones;
+            this.phonePatterns = phonePatterns;
+            this.phoneTerms = phoneTerms;
+        }
+    }
+}
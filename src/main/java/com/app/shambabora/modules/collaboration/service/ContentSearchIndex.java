@@ -0,0 +1,291 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.modules.collaboration.entity.Post;
+import com.app.shambabora.modules.collaboration.entity.PostComment;
+import com.app.shambabora.modules.collaboration.repository.PostCommentRepository;
+import com.app.shambabora.modules.collaboration.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over post and comment content with BM25 ranking.
+ *
+ * Kept current incrementally from PostService (create, comment, moderation) and rebuilt from
+ * the database on startup or on demand. A query only touches the postings of its own terms,
+ * so latency depends on how common the terms are rather than on the size of the tables.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ContentSearchIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private static final Set<String> SEARCHABLE_POST_STATUSES = Set.of(
+            Post.PostStatus.ACTIVE.name(), Post.PostStatus.PENDING_MODERATION.name(), Post.PostStatus.APPROVED.name());
+
+    private static final Set<String> SEARCHABLE_COMMENT_STATUSES = Set.of(
+            PostComment.CommentStatus.ACTIVE.name(), PostComment.CommentStatus.APPROVED.name());
+
+    private final PostRepository postRepository;
+    private final PostCommentRepository postCommentRepository;
+
+    private volatile InvertedIndex posts = new InvertedIndex();
+    private volatile InvertedIndex comments = new InvertedIndex();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public void indexPost(Post post) {
+        posts.put(post.getId(), post.getContent(), post.getStatus().name(), post.getGroupId());
+    }
+
+    public void updatePostStatus(Long postId, Post.PostStatus status) {
+        posts.updateStatus(postId, status.name());
+    }
+
+    public void indexComment(PostComment comment, Long groupId) {
+        comments.put(comment.getId(), comment.getContent(), comment.getStatus().name(), groupId);
+    }
+
+    public void updateCommentStatus(Long commentId, PostComment.CommentStatus status) {
+        comments.updateStatus(commentId, status.name());
+    }
+
+    /**
+     * Returns visible post ids matching the query, best match first.
+     * A non-null group id restricts results to that group.
+     */
+    public List<Long> searchPosts(String query, Long groupId, int limit) {
+        return posts.search(SearchTokenizer.tokenize(query), SEARCHABLE_POST_STATUSES, groupId, limit);
+    }
+
+    public List<Long> searchComments(String query, Long groupId, int limit) {
+        return comments.search(SearchTokenizer.tokenize(query), SEARCHABLE_COMMENT_STATUSES, groupId, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        Thread thread = new Thread(this::rebuild, "search-index-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Rebuilds both indexes from the database into fresh structures and swaps them in.
+     * Updates that arrive during the rebuild are applied to both the old and new index.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.info("Search index rebuild already running");
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            InvertedIndex newPosts = new InvertedIndex();
+            InvertedIndex newComments = new InvertedIndex();
+            posts.shadow = newPosts;
+            comments.shadow = newComments;
+
+            int page = 0;
+            List<Post> batch;
+            do {
+                batch = postRepository.findAll(PageRequest.of(page++, REBUILD_BATCH_SIZE, Sort.by("id"))).getContent();
+                for (Post post : batch) {
+                    newPosts.putIfAbsent(post.getId(), post.getContent(), post.getStatus().name(), post.getGroupId());
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            page = 0;
+            List<Object[]> rows;
+            do {
+                rows = postCommentRepository.findIndexRows(PageRequest.of(page++, REBUILD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    newComments.putIfAbsent((Long) row[0], (String) row[1], ((PostComment.CommentStatus) row[2]).name(), (Long) row[3]);
+                }
+            } while (rows.size() == REBUILD_BATCH_SIZE);
+
+            InvertedIndex oldPosts = posts;
+            InvertedIndex oldComments = comments;
+            posts = newPosts;
+            comments = newComments;
+            oldPosts.shadow = null;
+            oldComments.shadow = null;
+            log.info("Search index rebuilt: {} posts, {} comments in {} ms",
+                    newPosts.size(), newComments.size(), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            posts.shadow = null;
+            comments.shadow = null;
+            log.error("Search index rebuild failed", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Term -> (doc id -> term frequency) postings plus per-document metadata, guarded by a
+     * read/write lock. While a rebuild is running, writes are mirrored into {@code shadow}.
+     */
+    private static final class InvertedIndex {
+        private static final double K1 = 1.2;
+        private static final double B = 0.75;
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        private final Map<Long, Doc> docs = new HashMap<>();
+        private long totalLength;
+        private volatile InvertedIndex shadow;
+
+        void put(long id, String content, String status, Long groupId) {
+            write(id, content, status, groupId, true);
+            InvertedIndex s = shadow;
+            if (s != null) {
+                s.write(id, content, status, groupId, true);
+            }
+        }
+
+        void putIfAbsent(long id, String content, String status, Long groupId) {
+            write(id, content, status, groupId, false);
+        }
+
+        void updateStatus(long id, String status) {
+            setStatus(id, status);
+            InvertedIndex s = shadow;
+            if (s != null) {
+                s.setStatus(id, status);
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return docs.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void write(long id, String content, String status, Long groupId, boolean replace) {
+            List<String> tokens = SearchTokenizer.tokenize(content);
+            Map<String, Integer> termFrequencies = new HashMap<>();
+            for (String token : tokens) {
+                termFrequencies.merge(token, 1, Integer::sum);
+            }
+            lock.writeLock().lock();
+            try {
+                Doc existing = docs.get(id);
+                if (existing != null) {
+                    if (!replace) {
+                        return;
+                    }
+                    removeLocked(id, existing);
+                }
+                docs.put(id, new Doc(status, groupId, tokens.size(), termFrequencies.keySet().toArray(new String[0])));
+                totalLength += tokens.size();
+                termFrequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, tf));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void setStatus(long id, String status) {
+            lock.writeLock().lock();
+            try {
+                Doc doc = docs.get(id);
+                if (doc != null) {
+                    doc.status = status;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeLocked(long id, Doc doc) {
+            totalLength -= doc.length;
+            for (String term : doc.terms) {
+                Map<Long, Integer> list = postings.get(term);
+                if (list != null) {
+                    list.remove(id);
+                    if (list.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+            docs.remove(id);
+        }
+
+        List<Long> search(List<String> queryTerms, Set<String> statuses, Long groupId, int limit) {
+            if (queryTerms.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+            Map<Long, Double> scores = new HashMap<>();
+            lock.readLock().lock();
+            try {
+                int n = docs.size();
+                if (n == 0) {
+                    return List.of();
+                }
+                double avgLength = Math.max(1.0, (double) totalLength / n);
+                for (String term : queryTerms.stream().distinct().toList()) {
+                    Map<Long, Integer> list = postings.get(term);
+                    if (list == null) {
+                        continue;
+                    }
+                    double idf = Math.log(1 + (n - list.size() + 0.5) / (list.size() + 0.5));
+                    for (Map.Entry<Long, Integer> posting : list.entrySet()) {
+                        Doc doc = docs.get(posting.getKey());
+                        if (!statuses.contains(doc.status) || (groupId != null && !groupId.equals(doc.groupId))) {
+                            continue;
+                        }
+                        int tf = posting.getValue();
+                        double norm = tf + K1 * (1 - B + B * doc.length / avgLength);
+                        scores.merge(posting.getKey(), idf * tf * (K1 + 1) / norm, Double::sum);
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                top.add(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Long> ranked = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ranked.add(0, top.poll().getKey());
+            }
+            return ranked;
+        }
+
+        private static final class Doc {
+            private volatile String status;
+            private final Long groupId;
+            private final int length;
+            private final String[] terms;
+
+            Doc(String status, Long groupId, int length, String[] terms) {
+                this.status = status;
+                this.groupId = groupId;
+                this.length = length;
+                this.terms = terms;
+            }
+        }
+    }
+}
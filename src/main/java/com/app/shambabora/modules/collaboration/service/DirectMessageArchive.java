@@ -0,0 +1,641 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.modules.collaboration.entity.DirectMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Cold storage for old direct messages, one append-only segment file per conversation.
+ *
+ * A segment is a sequence of blocks, each a fixed header followed by a Deflate-compressed run of
+ * messages in (createdAt, id) order. Block headers double as a sparse index: on first use the
+ * headers are walked once and kept in memory (offset, count, id and time range per block), so
+ * a read decompresses only the blocks it needs. Files are read through a read-only memory map
+ * of the channel and remapped after appends. A failed append truncates its partial block
+ * straight away, and a torn block at the end of a file (crash during an append, detected by
+ * length or checksum) is truncated away when the segment is opened.
+ *
+ * The directory may be shared by several instances with the archiver enabled on one of them.
+ * A conversation unknown at startup is looked up on disk on a miss, and an open segment whose
+ * file has grown since its index was built indexes the new blocks before serving a read.
+ */
+@Component
+@Slf4j
+public class DirectMessageArchive {
+
+    private static final int BLOCK_MAGIC = 0x444D5347; // "DMSG"
+    // magic, count, rawLength, compressedLength, minId, maxId, firstMicros, lastMicros, lastId, crc
+    private static final int HEADER_BYTES = 4 * 4 + 8 * 5 + 4;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final DirectMessage.MessageType[] TYPES = DirectMessage.MessageType.values();
+    private static final DirectMessage.MessageStatus[] STATUSES = DirectMessage.MessageStatus.values();
+
+    @Value("${app.messages.archive.dir:data/dm-archive}")
+    private String archiveDir;
+
+    @Value("${app.messages.archive.max-open-segments:64}")
+    private int maxOpenSegments;
+
+    // Conversations that have at least one archived block; avoids touching the disk for the rest
+    private final Set<String> archivedKeys = ConcurrentHashMap.newKeySet();
+
+    private final LinkedHashMap<String, Segment> openSegments = new LinkedHashMap<>(16, 0.75f, true);
+
+    @PostConstruct
+    public void loadArchivedKeys() {
+        Path root = Paths.get(archiveDir);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> archivedKeys.add(name.substring(0, name.length() - SEGMENT_SUFFIX.length()).replace('_', ':')));
+            log.info("Found {} archived conversations in {}", archivedKeys.size(), root);
+        } catch (IOException e) {
+            log.warn("Failed to list message archive {}: {}", root, e.getMessage());
+        }
+    }
+
+    public boolean contains(String conversationKey) {
+        if (archivedKeys.contains(conversationKey)) {
+            return true;
+        }
+        // Archived by another instance since this one listed the directory
+        Path path = segmentPath(conversationKey);
+        try {
+            if (Files.isRegularFile(path) && Files.size(path) > 0) {
+                archivedKeys.add(conversationKey);
+                return true;
+            }
+        } catch (IOException e) {
+            log.debug("Failed to check message archive {}: {}", path, e.getMessage());
+        }
+        return false;
+    }
+
+    public long count(String conversationKey) {
+        if (!contains(conversationKey)) {
+            return 0;
+        }
+        Segment segment = segment(conversationKey);
+        synchronized (segment) {
+            segment.refresh();
+            return segment.totalCount;
+        }
+    }
+
+    /**
+     * Appends the messages as one block and fsyncs it. Messages must be sorted by
+     * (createdAt, id); any that are not newer than the end of the segment are skipped, which
+     * makes re-running an interrupted batch harmless. Returns the ids that are now safely in the
+     * archive (written by this call or already present), i.e. the rows that may be deleted.
+     */
+    public List<Long> append(String conversationKey, List<DirectMessage> messages) {
+        Segment segment = segment(conversationKey);
+        synchronized (segment) {
+            segment.refresh();
+            List<DirectMessage> fresh = new ArrayList<>(messages.size());
+            List<Long> stored = new ArrayList<>(messages.size());
+            for (DirectMessage message : messages) {
+                if (segment.blocks.isEmpty() || isAfter(message, segment.lastBlock())) {
+                    fresh.add(message);
+                } else if (segment.containsId(message.getId(), conversationKey)) {
+                    stored.add(message.getId());
+                } else {
+                    log.warn("Message {} is older than the archive of {} but not in it; leaving it in the database",
+                            message.getId(), conversationKey);
+                }
+            }
+            if (!fresh.isEmpty()) {
+                try {
+                    segment.append(encodeBlock(fresh));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to append to message archive " + segment.path, e);
+                }
+                archivedKeys.add(conversationKey);
+                fresh.forEach(message -> stored.add(message.getId()));
+            }
+            return stored;
+        }
+    }
+
+    /**
+     * Archived messages of the conversation in (createdAt, id) order, starting at
+     * {@code offset}.
+     */
+    public List<DirectMessage> read(String conversationKey, long offset, int limit) {
+        if (limit <= 0 || !contains(conversationKey)) {
+            return List.of();
+        }
+        Segment segment = segment(conversationKey);
+        synchronized (segment) {
+            segment.refresh();
+            List<DirectMessage> result = new ArrayList<>(limit);
+            long blockStart = 0;
+            for (BlockRef block : segment.blocks) {
+                long blockEnd = blockStart + block.count;
+                if (blockEnd > offset) {
+                    List<DirectMessage> decoded = segment.decode(block, conversationKey);
+                    int from = (int) Math.max(0, offset - blockStart);
+                    for (int i = from; i < decoded.size() && result.size() < limit; i++) {
+                        result.add(decoded.get(i));
+                    }
+                    if (result.size() >= limit) {
+                        break;
+                    }
+                }
+                blockStart = blockEnd;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Up to {@code limit} archived messages older than the (createdAt, id) cursor, newest
+     * first. A null cursor starts from the newest archived message.
+     */
+    public List<DirectMessage> readBefore(String conversationKey, Instant createdAt, Long id, int limit) {
+        if (limit <= 0 || !contains(conversationKey)) {
+            return List.of();
+        }
+        long cursorMicros = createdAt != null ? micros(createdAt) : Long.MAX_VALUE;
+        long cursorId = id != null ? id : Long.MAX_VALUE;
+        Segment segment = segment(conversationKey);
+        synchronized (segment) {
+            segment.refresh();
+            List<DirectMessage> result = new ArrayList<>(limit);
+            for (int b = segment.blocks.size() - 1; b >= 0 && result.size() < limit; b--) {
+                BlockRef block = segment.blocks.get(b);
+                if (compare(block.firstMicros, block.firstId, cursorMicros, cursorId) >= 0) {
+                    continue;
+                }
+                List<DirectMessage> decoded = segment.decode(block, conversationKey);
+                for (int i = decoded.size() - 1; i >= 0 && result.size() < limit; i--) {
+                    DirectMessage message = decoded.get(i);
+                    if (compare(micros(message.getCreatedAt()), message.getId(), cursorMicros, cursorId) < 0) {
+                        result.add(message);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    public DirectMessage find(String conversationKey, Long messageId) {
+        if (messageId == null || !contains(conversationKey)) {
+            return null;
+        }
+        Segment segment = segment(conversationKey);
+        synchronized (segment) {
+            segment.refresh();
+            return segment.findById(messageId, conversationKey);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void closeAll() {
+        for (Segment segment : openSegments.values()) {
+            segment.close();
+        }
+        openSegments.clear();
+    }
+
+    private synchronized Segment segment(String conversationKey) {
+        Segment segment = openSegments.get(conversationKey);
+        if (segment != null) {
+            return segment;
+        }
+        try {
+            segment = Segment.open(segmentPath(conversationKey));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open message archive for " + conversationKey, e);
+        }
+        openSegments.put(conversationKey, segment);
+        Iterator<Segment> eldest = openSegments.values().iterator();
+        while (openSegments.size() > maxOpenSegments && eldest.hasNext()) {
+            Segment evicted = eldest.next();
+            eldest.remove();
+            evicted.close();
+        }
+        return segment;
+    }
+
+    // Spread segments over 256 directories so no single directory gets huge
+    private Path segmentPath(String conversationKey) {
+        String shard = String.format("%02x", conversationKey.hashCode() & 0xff);
+        return Paths.get(archiveDir, shard, conversationKey.replace(':', '_') + SEGMENT_SUFFIX);
+    }
+
+    private static ByteBuffer encodeBlock(List<DirectMessage> messages) throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(messages.size() * 128);
+        long minId = Long.MAX_VALUE;
+        long maxId = Long.MIN_VALUE;
+        try (DataOutputStream out = new DataOutputStream(raw)) {
+            for (DirectMessage message : messages) {
+                writeMessage(out, message);
+                minId = Math.min(minId, message.getId());
+                maxId = Math.max(maxId, message.getId());
+            }
+        }
+        byte[] rawBytes = raw.toByteArray();
+
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        byte[] compressed;
+        try {
+            deflater.setInput(rawBytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(rawBytes.length / 3 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            compressed = out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(compressed);
+
+        DirectMessage first = messages.get(0);
+        DirectMessage last = messages.get(messages.size() - 1);
+        ByteBuffer block = ByteBuffer.allocate(HEADER_BYTES + compressed.length);
+        block.putInt(BLOCK_MAGIC)
+                .putInt(messages.size())
+                .putInt(rawBytes.length)
+                .putInt(compressed.length)
+                .putLong(minId)
+                .putLong(maxId)
+                .putLong(micros(first.getCreatedAt()))
+                .putLong(micros(last.getCreatedAt()))
+                .putLong(last.getId())
+                .putInt((int) crc.getValue())
+                .put(compressed);
+        block.flip();
+        return block;
+    }
+
+    private static void writeMessage(DataOutputStream out, DirectMessage message) throws IOException {
+        out.writeLong(message.getId());
+        out.writeLong(message.getSenderId());
+        out.writeLong(message.getRecipientId());
+        writeInstant(out, message.getCreatedAt());
+        int flags = (message.getReadAt() != null ? 1 : 0) | (message.getImageUrl() != null ? 2 : 0);
+        out.writeByte(flags);
+        if (message.getReadAt() != null) {
+            writeInstant(out, message.getReadAt());
+        }
+        out.writeByte(message.getMessageType() != null ? message.getMessageType().ordinal() : 0);
+        out.writeByte(message.getStatus() != null ? message.getStatus().ordinal() : 0);
+        out.writeUTF(message.getContent() != null ? message.getContent() : "");
+        if (message.getImageUrl() != null) {
+            out.writeUTF(message.getImageUrl());
+        }
+    }
+
+    private static DirectMessage readMessage(DataInputStream in, String conversationKey) throws IOException {
+        DirectMessage message = new DirectMessage();
+        message.setId(in.readLong());
+        message.setSenderId(in.readLong());
+        message.setRecipientId(in.readLong());
+        message.setConversationKey(conversationKey);
+        message.setCreatedAt(readInstant(in));
+        int flags = in.readByte();
+        if ((flags & 1) != 0) {
+            message.setReadAt(readInstant(in));
+        }
+        message.setMessageType(TYPES[in.readByte()]);
+        message.setStatus(STATUSES[in.readByte()]);
+        message.setContent(in.readUTF());
+        if ((flags & 2) != 0) {
+            message.setImageUrl(in.readUTF());
+        }
+        return message;
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant instant) throws IOException {
+        out.writeLong(instant.getEpochSecond());
+        out.writeInt(instant.getNano());
+    }
+
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        return Instant.ofEpochSecond(in.readLong(), in.readInt());
+    }
+
+    private static long micros(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000;
+    }
+
+    private static boolean isAfter(DirectMessage message, BlockRef block) {
+        return compare(micros(message.getCreatedAt()), message.getId(), block.lastMicros, block.lastId) > 0;
+    }
+
+    private static int compare(long micros1, long id1, long micros2, long id2) {
+        int cmp = Long.compare(micros1, micros2);
+        return cmp != 0 ? cmp : Long.compare(id1, id2);
+    }
+
+    /**
+     * One open segment file with its in-memory block index.
+     */
+    private static final class Segment {
+        private final Path path;
+        private FileChannel channel;
+        private final List<BlockRef> blocks = new ArrayList<>();
+        private long totalCount;
+        // End of the last complete block; appends always start here
+        private long end;
+        private MappedByteBuffer mapped;
+
+        private Segment(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+
+        static Segment open(Path path) throws IOException {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment segment = new Segment(path, channel);
+            try {
+                segment.loadIndex();
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            return segment;
+        }
+
+        boolean containsId(Long messageId, String conversationKey) {
+            return findById(messageId, conversationKey) != null;
+        }
+
+        DirectMessage findById(Long messageId, String conversationKey) {
+            for (BlockRef block : blocks) {
+                if (messageId < block.minId || messageId > block.maxId) {
+                    continue;
+                }
+                for (DirectMessage message : decode(block, conversationKey)) {
+                    if (messageId.equals(message.getId())) {
+                        return message;
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Indexes blocks appended by another instance since the index was built. Only blocks
+         * whose checksum matches are taken, so one still being written is picked up on a later
+         * call; nothing is truncated here, since the tail may belong to a live writer.
+         */
+        void refresh() {
+            try {
+                ensureOpen();
+                long size = channel.size();
+                if (size == end) {
+                    return;
+                }
+                if (size < end) {
+                    // Replaced or cut back underneath us; rebuild from the start
+                    blocks.clear();
+                    totalCount = 0;
+                    end = 0;
+                }
+                int known = blocks.size();
+                long offset = indexBlocks(end, size);
+                while (blocks.size() > known && !checksumMatches(lastBlock())) {
+                    BlockRef partial = blocks.remove(blocks.size() - 1);
+                    totalCount -= partial.count;
+                    offset = partial.offset;
+                }
+                if (offset != end) {
+                    end = offset;
+                    mapped = null;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to refresh message archive " + path, e);
+            }
+        }
+
+        BlockRef lastBlock() {
+            return blocks.get(blocks.size() - 1);
+        }
+
+        void append(ByteBuffer block) throws IOException {
+            ensureOpen();
+            long offset = end;
+            if (channel.size() != offset) {
+                channel.truncate(offset);
+            }
+            BlockRef ref = BlockRef.parse(block.duplicate(), offset);
+            mapped = null;
+            try {
+                while (block.hasRemaining()) {
+                    channel.write(block, offset + block.position());
+                }
+                channel.force(false);
+            } catch (IOException | RuntimeException e) {
+                // Cut the partial block off so it cannot end up in front of later blocks
+                try {
+                    channel.truncate(offset);
+                } catch (IOException truncateFailure) {
+                    e.addSuppressed(truncateFailure);
+                }
+                throw e;
+            }
+            blocks.add(ref);
+            totalCount += ref.count;
+            end = offset + HEADER_BYTES + ref.compressedLength;
+        }
+
+        List<DirectMessage> decode(BlockRef block, String conversationKey) {
+            try {
+                ensureOpen();
+                ByteBuffer view = map().duplicate();
+                view.position((int) (block.offset + HEADER_BYTES));
+                byte[] compressed = new byte[block.compressedLength];
+                view.get(compressed);
+                CRC32 crc = new CRC32();
+                crc.update(compressed);
+                if ((int) crc.getValue() != block.crc) {
+                    throw new IOException("Checksum mismatch in block at offset " + block.offset);
+                }
+
+                byte[] raw = new byte[block.rawLength];
+                Inflater inflater = new Inflater();
+                try {
+                    inflater.setInput(compressed);
+                    int read = 0;
+                    while (read < raw.length && !inflater.finished()) {
+                        read += inflater.inflate(raw, read, raw.length - read);
+                    }
+                } finally {
+                    inflater.end();
+                }
+
+                List<DirectMessage> messages = new ArrayList<>(block.count);
+                try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw))) {
+                    for (int i = 0; i < block.count; i++) {
+                        messages.add(readMessage(in, conversationKey));
+                    }
+                }
+                return messages;
+            } catch (IOException | DataFormatException e) {
+                throw new UncheckedIOException("Failed to read message archive " + path,
+                        e instanceof IOException ? (IOException) e : new IOException(e));
+            }
+        }
+
+        // Evicted from the open-segment cache; a reader still holding it reopens the file on demand
+        synchronized void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Failed to close {}: {}", path, e.getMessage());
+            }
+            mapped = null;
+        }
+
+        private void ensureOpen() throws IOException {
+            if (!channel.isOpen()) {
+                channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                mapped = null;
+            }
+        }
+
+        private MappedByteBuffer map() throws IOException {
+            if (mapped == null) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            return mapped;
+        }
+
+        private boolean checksumMatches(BlockRef block) throws IOException {
+            ByteBuffer compressed = ByteBuffer.allocate(block.compressedLength);
+            long position = block.offset + HEADER_BYTES;
+            while (compressed.hasRemaining() && channel.read(compressed, position + compressed.position()) >= 0) {
+                // read the full block body
+            }
+            CRC32 crc = new CRC32();
+            crc.update(compressed.array(), 0, compressed.position());
+            return !compressed.hasRemaining() && (int) crc.getValue() == block.crc;
+        }
+
+        private void loadIndex() throws IOException {
+            long size = channel.size();
+            long offset = indexBlocks(0, size);
+            // A crash during an append can leave a tail block of the right length but unsynced contents
+            if (!blocks.isEmpty() && !checksumMatches(lastBlock())) {
+                BlockRef torn = blocks.remove(blocks.size() - 1);
+                totalCount -= torn.count;
+                offset = torn.offset;
+            }
+            end = offset;
+            if (offset < size) {
+                log.warn("Truncating {} bytes of incomplete data at the end of {}", size - offset, path);
+                channel.truncate(offset);
+            }
+        }
+
+        // Walks block headers from offset and indexes every complete block; returns where they end
+        private long indexBlocks(long offset, long size) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (offset + HEADER_BYTES <= size) {
+                header.clear();
+                while (header.hasRemaining() && channel.read(header, offset + header.position()) >= 0) {
+                    // read the full header
+                }
+                header.flip();
+                if (header.remaining() < HEADER_BYTES || header.getInt(0) != BLOCK_MAGIC) {
+                    break;
+                }
+                BlockRef ref = BlockRef.parse(header, offset);
+                long blockEnd = offset + HEADER_BYTES + ref.compressedLength;
+                if (ref.count < 0 || ref.compressedLength < 0 || blockEnd > size) {
+                    break;
+                }
+                blocks.add(ref);
+                totalCount += ref.count;
+                offset = blockEnd;
+            }
+            return offset;
+        }
+    }
+
+    private static final class BlockRef {
+        private final long offset;
+        private final int count;
+        private final int rawLength;
+        private final int compressedLength;
+        private final long minId;
+        private final long maxId;
+        private final long firstMicros;
+        private final long firstId;
+        private final long lastMicros;
+        private final long lastId;
+        private final int crc;
+
+        private BlockRef(long offset, int count, int rawLength, int compressedLength, long minId, long maxId,
+                         long firstMicros, long firstId, long lastMicros, long lastId, int crc) {
+            this.offset = offset;
+            this.count = count;
+            this.rawLength = rawLength;
+            this.compressedLength = compressedLength;
+            this.minId = minId;
+            this.maxId = maxId;
+            this.firstMicros = firstMicros;
+            this.firstId = firstId;
+            this.lastMicros = lastMicros;
+            this.lastId = lastId;
+            this.crc = crc;
+        }
+
+        static BlockRef parse(ByteBuffer header, long offset) {
+            int base = header.position();
+            int count = header.getInt(base + 4);
+            int rawLength = header.getInt(base + 8);
+            int compressedLength = header.getInt(base + 12);
+            long minId = header.getLong(base + 16);
+            long maxId = header.getLong(base + 24);
+            long firstMicros = header.getLong(base + 32);
+            long lastMicros = header.getLong(base + 40);
+            long lastId = header.getLong(base + 48);
+            int crc = header.getInt(base + 56);
+            // The first message's id is not in the header; minId is a safe lower bound for the cursor check
+            return new BlockRef(offset, count, rawLength, compressedLength, minId, maxId,
+                    firstMicros, minId, lastMicros, lastId, crc);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.modules.collaboration.entity.DirectMessage;
+import com.app.shambabora.modules.collaboration.repository.DirectMessageRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves direct messages older than {@code app.messages.archive.after-days} out of the
+ * direct_messages table and into {@link DirectMessageArchive}.
+ *
+ * Each batch is written and fsynced to the conversation's segment before its rows are deleted,
+ * so a crash in between only leaves rows that the next run skips on append and then deletes.
+ * Messages move oldest first, which keeps the archive a prefix of every conversation.
+ * A run can take minutes of disk and database work, so it has its own thread rather than
+ * holding up the shared {@code @Scheduled} pool.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DirectMessageArchiver {
+
+    private final DirectMessageRepository directMessageRepository;
+    private final DirectMessageArchive directMessageArchive;
+    private final TransactionTemplate transactionTemplate;
+
+    // Segment files live on local disk, so only enable this where every instance shares the archive dir
+    @Value("${app.messages.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.messages.archive.after-days:180}")
+    private long archiveAfterDays;
+
+    @Value("${app.messages.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.messages.archive.conversations-per-run:500}")
+    private int conversationsPerRun;
+
+    @Value("${app.messages.archive.interval-ms:3600000}")
+    private long intervalMs;
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dm-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                archiveOldMessages();
+            } catch (RuntimeException e) {
+                // An escaping exception would cancel every later run
+                log.error("Direct message archive run failed", e);
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // No interrupt: an interrupted FileChannel write closes the segment mid-append
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public void archiveOldMessages() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(archiveAfterDays));
+        List<String> keys = directMessageRepository.findConversationKeysWithMessagesBefore(cutoff,
+                PageRequest.of(0, conversationsPerRun));
+        long moved = 0;
+        for (String key : keys) {
+            try {
+                moved += archiveConversation(key, cutoff);
+            } catch (RuntimeException e) {
+                log.error("Failed to archive messages of conversation {}", key, e);
+            }
+        }
+        if (moved > 0) {
+            log.info("Archived {} direct messages from {} conversations", moved, keys.size());
+        }
+    }
+
+    private long archiveConversation(String conversationKey, Instant cutoff) {
+        long moved = 0;
+        while (true) {
+            List<DirectMessage> batch = directMessageRepository.findByConversationKeyAndCreatedAtBeforeOrderByCreatedAtAscIdAsc(
+                    conversationKey, cutoff, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return moved;
+            }
+            List<Long> archivedIds = directMessageArchive.append(conversationKey, batch);
+            if (archivedIds.isEmpty()) {
+                // Nothing from this batch could be stored; stop rather than loop on it
+                return moved;
+            }
+            transactionTemplate.executeWithoutResult(status -> directMessageRepository.deleteAllByIdInBatch(archivedIds));
+            moved += archivedIds.size();
+            if (archivedIds.size() < batch.size() || batch.size() < batchSize) {
+                return moved;
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Startup repair for direct message data that the V7/V8 scripts backfill.
+ *
+ * The scripts are applied by hand while the schema itself follows {@code ddl-auto=update}, so
+ * the application can start first: Hibernate then adds {@code conversation_key} as NOT NULL
+ * (MySQL fills existing rows with '') and an empty {@code conversation_summaries} table, and
+ * existing conversations disappear from the conversation and inbox queries. This fills in
+ * missing keys and summary rows on startup; both steps are no-ops once the data is complete.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DirectMessageDataRepair {
+
+    private static final String BACKFILL_KEYS_SQL =
+            "UPDATE direct_messages " +
+            "SET conversation_key = CONCAT(LEAST(sender_id, recipient_id), ':', GREATEST(sender_id, recipient_id)) " +
+            "WHERE conversation_key IS NULL OR conversation_key = ''";
+
+    private static final String MISSING_SUMMARY_SQL =
+            "SELECT 1 FROM direct_messages dm WHERE NOT EXISTS (" +
+            "SELECT 1 FROM conversation_summaries cs WHERE cs.user_id = dm.sender_id AND cs.partner_id = dm.recipient_id) LIMIT 1";
+
+    // Same backfill as V7; rows that already exist are left alone
+    private static final String BACKFILL_SUMMARIES_SQL =
+            "INSERT IGNORE INTO conversation_summaries " +
+            "(user_id, partner_id, last_message_id, last_sender_id, last_message_preview, last_message_type, last_message_at, unread_count, updated_at) " +
+            "SELECT c.user_id, c.partner_id, dm.id, dm.sender_id, LEFT(dm.content, 200), dm.message_type, dm.created_at, c.unread, NOW(6) " +
+            "FROM (" +
+            "SELECT t.user_id, t.partner_id, MAX(t.id) AS last_id, SUM(t.unread) AS unread FROM (" +
+            "SELECT sender_id AS user_id, recipient_id AS partner_id, id, 0 AS unread FROM direct_messages " +
+            "UNION ALL " +
+            "SELECT recipient_id, sender_id, id, CASE WHEN read_at IS NULL THEN 1 ELSE 0 END FROM direct_messages" +
+            ") t GROUP BY t.user_id, t.partner_id" +
+            ") c JOIN direct_messages dm ON dm.id = c.last_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.messages.startup-repair.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void repairOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int keys = jdbcTemplate.update(BACKFILL_KEYS_SQL);
+            if (keys > 0) {
+                log.warn("Backfilled conversation_key for {} direct messages; apply V8 to add the column ahead of deployment", keys);
+            }
+            List<Integer> missing = jdbcTemplate.queryForList(MISSING_SUMMARY_SQL, Integer.class);
+            if (!missing.isEmpty()) {
+                int summaries = jdbcTemplate.update(BACKFILL_SUMMARIES_SQL);
+                log.warn("Backfilled {} conversation summaries; apply V7 to build the inbox ahead of deployment", summaries);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to repair direct message data", e);
+        }
+    }
+}
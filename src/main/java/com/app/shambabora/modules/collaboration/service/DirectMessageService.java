@@ -1,22 +1,37 @@
 package com.app.shambabora.modules.collaboration.service;
 
 import com.app.shambabora.common.api.ApiResponse;
+import com.app.shambabora.common.api.CursorPageResponse;
+import com.app.shambabora.common.api.PageCursor;
 import com.app.shambabora.common.api.PageResponse;
 import com.app.shambabora.common.exception.BadRequestException;
 import com.app.shambabora.common.exception.NotFoundException;
+import com.app.shambabora.modules.collaboration.dto.ConversationSummaryDTO;
 import com.app.shambabora.modules.collaboration.dto.DirectMessageDTO;
+import com.app.shambabora.modules.collaboration.entity.ConversationSummary;
 import com.app.shambabora.modules.collaboration.entity.DirectMessage;
+import com.app.shambabora.modules.collaboration.event.DirectMessageSentEvent;
+import com.app.shambabora.modules.collaboration.repository.ConversationSummaryRepository;
 import com.app.shambabora.modules.collaboration.repository.DirectMessageRepository;
+import com.app.shambabora.service.UserDirectory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,7 +40,19 @@ import java.util.stream.Collectors;
 public class DirectMessageService {
     
     private final DirectMessageRepository directMessageRepository;
-    private final Optional<NotificationService> notificationService;
+    private final ConversationSummaryRepository conversationSummaryRepository;
+    private final ReadReceiptCoalescer readReceiptCoalescer;
+    private final UnreadCounterService unreadCounterService;
+    private final MessageDeliveryHub messageDeliveryHub;
+    private final DirectMessageArchive directMessageArchive;
+    private final UserDirectory userDirectory;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.messages.long-poll-timeout-ms:30000}")
+    private long longPollTimeoutMillis;
+    
+    @Value("${app.messages.sse-timeout-ms:300000}")
+    private long sseTimeoutMillis;
     
     @Transactional
     public ApiResponse<DirectMessageDTO> sendMessage(DirectMessageDTO messageDTO, Long senderId) {
@@ -47,52 +74,139 @@ public class DirectMessageService {
         DirectMessage savedMessage = directMessageRepository.save(message);
         log.info("Message sent with ID: {}", savedMessage.getId());
         
-        // Notify recipient if websockets enabled
-        notificationService.ifPresent(ns -> ns.notifyNewMessage(mapToDTO(savedMessage)));
+        recordInInbox(savedMessage);
+        unreadCounterService.messageReceived(savedMessage.getRecipientId());
         
-        return ApiResponse.ok("Message sent successfully", mapToDTO(savedMessage));
+        // Notify recipient once committed (if websockets enabled)
+        DirectMessageDTO savedDTO = mapToDTO(savedMessage);
+        eventPublisher.publishEvent(new DirectMessageSentEvent(savedDTO));
+        messageDeliveryHub.publish(savedMessage.getRecipientId(), savedDTO);
+        
+        return ApiResponse.ok("Message sent successfully", savedDTO);
     }
     
     public ApiResponse<PageResponse<DirectMessageDTO>> getConversation(Long userId1, Long userId2, Pageable pageable) {
         log.info("Getting conversation between {} and {}", userId1, userId2);
         
-        Page<DirectMessage> messages = directMessageRepository.findConversation(userId1, userId2, pageable);
+        // Archived messages are the oldest prefix of the conversation, the table holds the rest
+        String conversationKey = DirectMessage.conversationKey(userId1, userId2);
+        long archived = directMessageArchive.count(conversationKey);
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+        
+        List<DirectMessage> rows = new ArrayList<>(directMessageArchive.read(conversationKey, offset, size));
+        long hotTotal;
+        if (rows.size() < size) {
+            Page<DirectMessage> hot = directMessageRepository.findConversation(conversationKey,
+                    new OffsetPageRequest(Math.max(0, offset - archived), size - rows.size()));
+            rows.addAll(hot.getContent());
+            hotTotal = hot.getTotalElements();
+        } else {
+            hotTotal = directMessageRepository.countByConversationKey(conversationKey);
+        }
+        long totalElements = archived + hotTotal;
         
-        List<DirectMessageDTO> messageDTOs = messages.getContent().stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        List<DirectMessageDTO> messageDTOs = mapToDTOs(rows);
         
         PageResponse<DirectMessageDTO> pageResponse = PageResponse.<DirectMessageDTO>builder()
                 .content(messageDTOs)
-                .page(messages.getNumber())
-                .size(messages.getSize())
-                .totalElements(messages.getTotalElements())
-                .totalPages(messages.getTotalPages())
+                .page(pageable.getPageNumber())
+                .size(size)
+                .totalElements(totalElements)
+                .totalPages((int) ((totalElements + size - 1) / size))
                 .build();
         
         return ApiResponse.ok("Conversation retrieved successfully", pageResponse);
     }
     
+    public ApiResponse<CursorPageResponse<DirectMessageDTO>> getConversationByCursor(Long userId1, Long userId2, String cursorToken, int size) {
+        log.info("Getting cursor conversation between {} and {}", userId1, userId2);
+        
+        String conversationKey = DirectMessage.conversationKey(userId1, userId2);
+        PageCursor cursor = PageCursor.decode(cursorToken);
+        int limit = CursorPageResponse.clampSize(size);
+        Instant createdAt = cursor != null ? cursor.getCreatedAt() : null;
+        Long id = cursor != null ? cursor.getId() : null;
+        List<DirectMessage> rows = new ArrayList<>(directMessageRepository.findConversationBefore(conversationKey,
+                createdAt, id, PageRequest.of(0, limit + 1)));
+        
+        // Ran off the end of the table: keep scrolling back into the archive
+        if (rows.size() <= limit && directMessageArchive.contains(conversationKey)) {
+            if (!rows.isEmpty()) {
+                DirectMessage oldest = rows.get(rows.size() - 1);
+                createdAt = oldest.getCreatedAt();
+                id = oldest.getId();
+            }
+            rows.addAll(directMessageArchive.readBefore(conversationKey, createdAt, id, limit + 1 - rows.size()));
+        }
+        
+        return ApiResponse.ok("Conversation retrieved successfully",
+                CursorPageResponse.of(rows, limit, DirectMessage::getCreatedAt, DirectMessage::getId,
+                        this::mapToDTOs));
+    }
+    
     public ApiResponse<PageResponse<DirectMessageDTO>> getRecentConversations(Long userId, Pageable pageable) {
         log.info("Getting recent conversations for user: {}", userId);
         
-        Page<DirectMessage> messages = directMessageRepository.findRecentConversations(userId, pageable);
+        Page<ConversationSummary> summaries = conversationSummaryRepository
+                .findByUserIdOrderByLastMessageAtDescLastMessageIdDesc(userId, pageable);
         
-        List<DirectMessageDTO> messageDTOs = messages.getContent().stream()
-                .map(this::mapToDTO)
+        // Latest message of each conversation, in inbox order
+        List<Long> lastMessageIds = summaries.getContent().stream()
+                .map(ConversationSummary::getLastMessageId)
                 .collect(Collectors.toList());
+        Map<Long, DirectMessage> messagesById = directMessageRepository.findAllById(lastMessageIds).stream()
+                .collect(Collectors.toMap(DirectMessage::getId, message -> message));
+        // A conversation that has gone quiet may have its last message in the archive
+        for (ConversationSummary summary : summaries.getContent()) {
+            if (!messagesById.containsKey(summary.getLastMessageId())) {
+                DirectMessage archived = directMessageArchive.find(
+                        DirectMessage.conversationKey(summary.getUserId(), summary.getPartnerId()), summary.getLastMessageId());
+                if (archived != null) {
+                    messagesById.put(archived.getId(), archived);
+                }
+            }
+        }
+        List<DirectMessageDTO> messageDTOs = mapToDTOs(lastMessageIds.stream()
+                .map(messagesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
         
         PageResponse<DirectMessageDTO> pageResponse = PageResponse.<DirectMessageDTO>builder()
                 .content(messageDTOs)
-                .page(messages.getNumber())
-                .size(messages.getSize())
-                .totalElements(messages.getTotalElements())
-                .totalPages(messages.getTotalPages())
+                .page(summaries.getNumber())
+                .size(summaries.getSize())
+                .totalElements(summaries.getTotalElements())
+                .totalPages(summaries.getTotalPages())
                 .build();
         
         return ApiResponse.ok("Recent conversations retrieved successfully", pageResponse);
     }
     
+    public ApiResponse<PageResponse<ConversationSummaryDTO>> getInbox(Long userId, Pageable pageable) {
+        log.info("Getting inbox for user: {}", userId);
+        
+        Page<ConversationSummary> summaries = conversationSummaryRepository
+                .findByUserIdOrderByLastMessageAtDescLastMessageIdDesc(userId, pageable);
+        
+        Map<Long, UserDirectory.UserSummary> partners = userDirectory.resolve(summaries.getContent().stream()
+                .map(ConversationSummary::getPartnerId)
+                .collect(Collectors.toList()));
+        List<ConversationSummaryDTO> summaryDTOs = summaries.getContent().stream()
+                .map(summary -> mapSummaryToDTO(summary, partners.get(summary.getPartnerId())))
+                .collect(Collectors.toList());
+        
+        PageResponse<ConversationSummaryDTO> pageResponse = PageResponse.<ConversationSummaryDTO>builder()
+                .content(summaryDTOs)
+                .page(summaries.getNumber())
+                .size(summaries.getSize())
+                .totalElements(summaries.getTotalElements())
+                .totalPages(summaries.getTotalPages())
+                .build();
+        
+        return ApiResponse.ok("Inbox retrieved successfully", pageResponse);
+    }
+    
     @Transactional
     public ApiResponse<DirectMessageDTO> markAsRead(Long messageId, Long userId) {
         log.info("Marking message {} as read by user {}", messageId, userId);
@@ -104,10 +218,15 @@ public class DirectMessageService {
             throw new BadRequestException("Cannot mark message as read - not the recipient");
         }
         
+        boolean wasUnread = message.getReadAt() == null;
         message.setReadAt(Instant.now());
         message.setStatus(DirectMessage.MessageStatus.READ);
         
         DirectMessage savedMessage = directMessageRepository.save(message);
+        if (wasUnread) {
+            conversationSummaryRepository.decrementUnread(userId, message.getSenderId(), 1, Instant.now());
+            unreadCounterService.messagesRead(userId, 1);
+        }
         log.info("Message {} marked as read", messageId);
         
         return ApiResponse.ok("Message marked as read", mapToDTO(savedMessage));
@@ -117,29 +236,29 @@ public class DirectMessageService {
     public ApiResponse<String> markConversationAsRead(Long otherUserId, Long currentUserId) {
         log.info("Marking conversation with {} as read by user {}", otherUserId, currentUserId);
         
-        List<DirectMessage> unreadMessages = directMessageRepository.findUnreadMessages(currentUserId);
-        
-        unreadMessages.stream()
-                .filter(msg -> msg.getSenderId().equals(otherUserId))
-                .forEach(msg -> {
-                    msg.setReadAt(Instant.now());
-                    msg.setStatus(DirectMessage.MessageStatus.READ);
-                });
-        
-        directMessageRepository.saveAll(unreadMessages);
-        log.info("Conversation with {} marked as read", otherUserId);
+        int updated = readReceiptCoalescer.markRead(currentUserId, otherUserId, null);
+        log.info("Conversation with {} marked as read ({} messages)", otherUserId, updated);
         
         return ApiResponse.ok("Conversation marked as read", "Success");
     }
     
+    /**
+     * Queues a read receipt for the conversation; applied within app.messages.read-receipt-flush-ms.
+     */
+    public ApiResponse<String> submitReadReceipt(Long otherUserId, Long currentUserId, Long upToMessageId) {
+        if (otherUserId.equals(currentUserId)) {
+            throw new BadRequestException("Cannot mark own messages as read");
+        }
+        readReceiptCoalescer.submit(currentUserId, otherUserId, upToMessageId);
+        return ApiResponse.ok("Read receipt accepted", "Success");
+    }
+    
     public ApiResponse<List<DirectMessageDTO>> getUnreadMessages(Long userId) {
         log.info("Getting unread messages for user: {}", userId);
         
         List<DirectMessage> unreadMessages = directMessageRepository.findUnreadMessages(userId);
         
-        List<DirectMessageDTO> messageDTOs = unreadMessages.stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        List<DirectMessageDTO> messageDTOs = mapToDTOs(unreadMessages);
         
         return ApiResponse.ok("Unread messages retrieved successfully", messageDTOs);
     }
@@ -147,7 +266,7 @@ public class DirectMessageService {
     public ApiResponse<Long> getUnreadCount(Long userId) {
         log.info("Getting unread message count for user: {}", userId);
         
-        long count = directMessageRepository.countByRecipientIdAndReadAtIsNull(userId);
+        long count = unreadCounterService.getUnreadCount(userId);
         
         return ApiResponse.ok("Unread count retrieved successfully", count);
     }
@@ -155,15 +274,34 @@ public class DirectMessageService {
     public ApiResponse<List<DirectMessageDTO>> getMessagesAfter(Long userId1, Long userId2, Instant since) {
         log.info("Getting messages after {} between {} and {}", since, userId1, userId2);
         
-        List<DirectMessage> messages = directMessageRepository.findMessagesAfter(userId1, userId2, since);
+        List<DirectMessage> messages = directMessageRepository.findMessagesAfter(
+                DirectMessage.conversationKey(userId1, userId2), since);
         
-        List<DirectMessageDTO> messageDTOs = messages.stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        List<DirectMessageDTO> messageDTOs = mapToDTOs(messages);
         
         return ApiResponse.ok("Messages retrieved successfully", messageDTOs);
     }
     
+    /**
+     * Long-poll for messages to the user newer than {@code afterId}. Completes as soon as one is
+     * sent, or with an empty list after app.messages.long-poll-timeout-ms.
+     */
+    public DeferredResult<ApiResponse<List<DirectMessageDTO>>> pollNewMessages(Long userId, Long afterId) {
+        DeferredResult<ApiResponse<List<DirectMessageDTO>>> result = new DeferredResult<>(longPollTimeoutMillis,
+                () -> ApiResponse.ok("No new messages", List.<DirectMessageDTO>of()));
+        messageDeliveryHub.poll(userId, afterId, result, (after, limit) -> loadMessagesAfterId(userId, after, limit));
+        return result;
+    }
+    
+    /**
+     * Server-Sent Events stream of messages to the user, for clients without WebSockets.
+     */
+    public SseEmitter streamNewMessages(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        messageDeliveryHub.subscribe(userId, lastEventId, emitter, (after, limit) -> loadMessagesAfterId(userId, after, limit));
+        return emitter;
+    }
+    
     public ApiResponse<List<Long>> getConversationPartners(Long userId) {
         log.info("Getting conversation partners for user: {}", userId);
         
@@ -172,13 +310,69 @@ public class DirectMessageService {
         return ApiResponse.ok("Conversation partners retrieved successfully", partners);
     }
     
+    private List<DirectMessageDTO> loadMessagesAfterId(Long userId, long afterId, int limit) {
+        return mapToDTOs(directMessageRepository.findByRecipientIdAndIdGreaterThanOrderByIdAsc(
+                userId, afterId, PageRequest.of(0, limit)));
+    }
+    
+    // Both sides of the conversation get the message; only the recipient's unread count moves
+    private void recordInInbox(DirectMessage message) {
+        String preview = preview(message.getContent());
+        String type = message.getMessageType() != null ? message.getMessageType().name() : null;
+        Instant now = Instant.now();
+        conversationSummaryRepository.upsertMessage(message.getSenderId(), message.getRecipientId(), message.getId(),
+                message.getSenderId(), preview, type, message.getCreatedAt(), 0, now);
+        conversationSummaryRepository.upsertMessage(message.getRecipientId(), message.getSenderId(), message.getId(),
+                message.getSenderId(), preview, type, message.getCreatedAt(), 1, now);
+    }
+    
+    private static String preview(String content) {
+        if (content == null) {
+            return null;
+        }
+        return content.length() > 200 ? content.substring(0, 197) + "..." : content;
+    }
+    
+    private ConversationSummaryDTO mapSummaryToDTO(ConversationSummary summary, UserDirectory.UserSummary partner) {
+        return ConversationSummaryDTO.builder()
+                .partnerId(summary.getPartnerId())
+                .partnerName(partner != null ? partner.getDisplayName() : null)
+                .partnerAvatarUrl(partner != null ? partner.getAvatarUrl() : null)
+                .lastMessageId(summary.getLastMessageId())
+                .lastSenderId(summary.getLastSenderId())
+                .lastMessagePreview(summary.getLastMessagePreview())
+                .lastMessageType(summary.getLastMessageType())
+                .lastMessageAt(summary.getLastMessageAt())
+                .unreadCount(summary.getUnreadCount())
+                .build();
+    }
+    
     private DirectMessageDTO mapToDTO(DirectMessage message) {
+        return mapToDTOs(List.of(message)).get(0);
+    }
+    
+    // Resolves senders and recipients of the whole page with one directory lookup
+    private List<DirectMessageDTO> mapToDTOs(List<DirectMessage> messages) {
+        List<Long> userIds = new ArrayList<>(messages.size() * 2);
+        for (DirectMessage message : messages) {
+            userIds.add(message.getSenderId());
+            userIds.add(message.getRecipientId());
+        }
+        Map<Long, UserDirectory.UserSummary> users = userDirectory.resolve(userIds);
+        return messages.stream()
+                .map(message -> mapToDTO(message, users.get(message.getSenderId()), users.get(message.getRecipientId())))
+                .collect(Collectors.toList());
+    }
+    
+    private DirectMessageDTO mapToDTO(DirectMessage message, UserDirectory.UserSummary sender, UserDirectory.UserSummary recipient) {
         return DirectMessageDTO.builder()
                 .id(message.getId())
                 .senderId(message.getSenderId())
-                .senderName(getUserName(message.getSenderId()))
+                .senderName(sender != null ? sender.getDisplayName() : null)
+                .senderAvatarUrl(sender != null ? sender.getAvatarUrl() : null)
                 .recipientId(message.getRecipientId())
-                .recipientName(getUserName(message.getRecipientId()))
+                .recipientName(recipient != null ? recipient.getDisplayName() : null)
+                .recipientAvatarUrl(recipient != null ? recipient.getAvatarUrl() : null)
                 .content(message.getContent())
                 .imageUrl(message.getImageUrl())
                 .messageType(message.getMessageType())
@@ -188,7 +382,18 @@ public class DirectMessageService {
                 .build();
     }
     
-    private String getUserName(Long userId) {
-        return "User " + userId;
+    // Page of the hot tier that starts at an arbitrary row, after the archived prefix
+    private static final class OffsetPageRequest extends PageRequest {
+        private final long offset;
+        
+        OffsetPageRequest(long offset, int limit) {
+            super(0, limit, Sort.unsorted());
+            this.offset = offset;
+        }
+        
+        @Override
+        public long getOffset() {
+            return offset;
+        }
     }
 }
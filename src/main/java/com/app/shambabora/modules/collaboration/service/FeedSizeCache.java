@@ -0,0 +1,90 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.modules.collaboration.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approximate home feed sizes for the {@code totalElements} of offset pages.
+ *
+ * Visible post counts are cached per group and for general posts, each for
+ * {@code app.feed.count-ttl-ms}, so a feed page only counts the groups whose entry has
+ * expired (in one grouped query) instead of rescanning every post the user can see.
+ */
+@Component
+@RequiredArgsConstructor
+public class FeedSizeCache {
+
+    private final PostRepository postRepository;
+
+    @Value("${app.feed.count-ttl-ms:60000}")
+    private long countTtlMs;
+
+    // groupId -> cached count of its visible posts
+    private final ConcurrentHashMap<Long, CachedCount> counts = new ConcurrentHashMap<>();
+
+    private volatile CachedCount generalCount;
+
+    /**
+     * Visible posts in the given groups plus general posts.
+     */
+    public long feedSize(List<Long> groupIds) {
+        long now = System.currentTimeMillis();
+        long total = 0;
+        List<Long> stale = new ArrayList<>();
+        for (Long groupId : groupIds) {
+            CachedCount cached = counts.get(groupId);
+            if (cached != null && cached.isFresh(now, countTtlMs)) {
+                total += cached.value;
+            } else {
+                stale.add(groupId);
+            }
+        }
+        if (!stale.isEmpty()) {
+            Map<Long, Long> loaded = new HashMap<>();
+            for (Object[] row : postRepository.countVisibleGroupByGroupIdIn(stale)) {
+                loaded.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+            // Groups without visible posts are absent from the result
+            for (Long groupId : stale) {
+                long count = loaded.getOrDefault(groupId, 0L);
+                counts.put(groupId, new CachedCount(count, now));
+                total += count;
+            }
+        }
+        CachedCount general = generalCount;
+        if (general == null || !general.isFresh(now, countTtlMs)) {
+            general = new CachedCount(postRepository.countGeneralVisible(), now);
+            generalCount = general;
+        }
+        return total + general.value;
+    }
+
+    @Scheduled(fixedDelayString = "${app.feed.timeline-sweep-ms:300000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        counts.values().removeIf(cached -> !cached.isFresh(now, countTtlMs));
+    }
+
+    private static final class CachedCount {
+        private final long value;
+        private final long loadedAt;
+
+        CachedCount(long value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+
+        boolean isFresh(long now, long ttlMs) {
+            return now - loadedAt < ttlMs;
+        }
+    }
+}
@@ -4,22 +4,26 @@ import com.app.shambabora.common.api.ApiResponse;
 import com.app.shambabora.common.api.PageResponse;
 import com.app.shambabora.common.exception.BadRequestException;
 import com.app.shambabora.common.exception.NotFoundException;
-import com.app.shambabora.entity.User;
 import com.app.shambabora.modules.collaboration.dto.GroupDTO;
 import com.app.shambabora.modules.collaboration.dto.GroupMembershipDTO;
 import com.app.shambabora.modules.collaboration.entity.Group;
 import com.app.shambabora.modules.collaboration.entity.GroupMembership;
+import com.app.shambabora.modules.collaboration.event.GroupUpdatedEvent;
 import com.app.shambabora.modules.collaboration.repository.GroupMembershipRepository;
 import com.app.shambabora.modules.collaboration.repository.GroupRepository;
 import com.app.shambabora.repository.UserRepository;
+import com.app.shambabora.service.UserDirectory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +34,9 @@ public class GroupManagementService {
     private final GroupRepository groupRepository;
     private final GroupMembershipRepository groupMembershipRepository;
     private final UserRepository userRepository;
+    private final UserDirectory userDirectory;
+    private final HomeTimelineStore homeTimelineStore;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional
     public ApiResponse<GroupDTO> createGroup(GroupDTO groupDTO, Long ownerId) {
@@ -88,9 +95,12 @@ public class GroupManagementService {
                 .build();
         
         GroupMembership savedMembership = groupMembershipRepository.save(membership);
+        homeTimelineStore.invalidate(userId);
         log.info("User {} added to group {}", userId, groupId);
         
-        return ApiResponse.ok("Member added successfully", mapMembershipToDTO(savedMembership));
+        GroupMembershipDTO membershipDTO = mapMembershipToDTO(savedMembership);
+        eventPublisher.publishEvent(new GroupUpdatedEvent(groupId, "member_added", membershipDTO));
+        return ApiResponse.ok("Member added successfully", membershipDTO);
     }
     
     @Transactional
@@ -107,9 +117,12 @@ public class GroupManagementService {
         
         membership.setStatus(GroupMembership.MembershipStatus.LEFT);
         groupMembershipRepository.save(membership);
+        homeTimelineStore.invalidate(userId);
         log.info("User {} removed from group {}", userId, groupId);
         
-        return ApiResponse.ok("Member removed successfully", mapMembershipToDTO(membership));
+        GroupMembershipDTO membershipDTO = mapMembershipToDTO(membership);
+        eventPublisher.publishEvent(new GroupUpdatedEvent(groupId, "member_removed", membershipDTO));
+        return ApiResponse.ok("Member removed successfully", membershipDTO);
     }
     
     @Transactional
@@ -145,6 +158,7 @@ public class GroupManagementService {
         
         membership.setStatus(GroupMembership.MembershipStatus.SUSPENDED);
         GroupMembership savedMembership = groupMembershipRepository.save(membership);
+        homeTimelineStore.invalidate(userId);
         log.info("User {} suspended from group {}", userId, groupId);
         
         return ApiResponse.ok("Member suspended successfully", mapMembershipToDTO(savedMembership));
@@ -160,8 +174,9 @@ public class GroupManagementService {
         
         List<GroupMembership> memberships = groupMembershipRepository.findByGroupIdAndStatus(groupId, GroupMembership.MembershipStatus.ACTIVE);
         
+        Map<Long, UserDirectory.UserSummary> users = resolveMembershipUsers(memberships);
         List<GroupMembershipDTO> membershipDTOs = memberships.stream()
-                .map(this::mapMembershipToDTO)
+                .map(membership -> mapMembershipToDTO(membership, users))
                 .collect(Collectors.toList());
         
         PageResponse<GroupMembershipDTO> pageResponse = PageResponse.<GroupMembershipDTO>builder()
@@ -181,8 +196,9 @@ public class GroupManagementService {
         List<Long> groupIds = groupMembershipRepository.findGroupIdsByUserIdAndStatus(userId, GroupMembership.MembershipStatus.ACTIVE);
         List<Group> groups = groupRepository.findAllById(groupIds);
         
+        Map<Long, UserDirectory.UserSummary> owners = resolveOwners(groups);
         List<GroupDTO> groupDTOs = groups.stream()
-                .map(this::mapToDTO)
+                .map(group -> mapToDTO(group, owners))
                 .collect(Collectors.toList());
         
         return ApiResponse.ok("User groups retrieved successfully", groupDTOs);
@@ -220,8 +236,9 @@ public class GroupManagementService {
             groupPage = groupRepository.findAll(pageable);
         }
         
+        Map<Long, UserDirectory.UserSummary> owners = resolveOwners(groupPage.getContent());
         List<GroupDTO> groupDTOs = groupPage.getContent().stream()
-                .map(this::mapToDTO)
+                .map(group -> mapToDTO(group, owners))
                 .collect(Collectors.toList());
         
         PageResponse<GroupDTO> pageResponse = PageResponse.<GroupDTO>builder()
@@ -256,9 +273,12 @@ public class GroupManagementService {
                 .build();
         
         GroupMembership savedMembership = groupMembershipRepository.save(membership);
+        homeTimelineStore.invalidate(userId);
         log.info("User {} joined group {}", userId, groupId);
         
-        return ApiResponse.ok("Successfully joined group", mapMembershipToDTO(savedMembership));
+        GroupMembershipDTO membershipDTO = mapMembershipToDTO(savedMembership);
+        eventPublisher.publishEvent(new GroupUpdatedEvent(groupId, "member_joined", membershipDTO));
+        return ApiResponse.ok("Successfully joined group", membershipDTO);
     }
     
     @Transactional
@@ -278,8 +298,10 @@ public class GroupManagementService {
         
         membership.setStatus(GroupMembership.MembershipStatus.LEFT);
         groupMembershipRepository.save(membership);
+        homeTimelineStore.invalidate(userId);
         log.info("User {} left group {}", userId, groupId);
         
+        eventPublisher.publishEvent(new GroupUpdatedEvent(groupId, "member_left", userId));
         return ApiResponse.ok("Successfully left group", "Success");
     }
     
@@ -296,7 +318,7 @@ public class GroupManagementService {
                 .stream()
                 .map(GroupMembership::getUserId)
                 .collect(Collectors.toList());
-        String ownerName = getUserName(group.getOwnerId());
+        String ownerName = userDirectory.displayName(group.getOwnerId());
         
         GroupDTO groupDTO = GroupDTO.builder()
                 .id(group.getId())
@@ -338,12 +360,17 @@ public class GroupManagementService {
     }
     
     private GroupDTO mapToDTO(Group group) {
+        return mapToDTO(group, userDirectory.resolve(List.of(group.getOwnerId())));
+    }
+    
+    private GroupDTO mapToDTO(Group group, Map<Long, UserDirectory.UserSummary> owners) {
         long memberCount = groupMembershipRepository.countByGroupIdAndStatus(group.getId(), GroupMembership.MembershipStatus.ACTIVE);
         List<Long> memberIds = groupMembershipRepository.findByGroupIdAndStatus(group.getId(), GroupMembership.MembershipStatus.ACTIVE)
                 .stream()
                 .map(GroupMembership::getUserId)
                 .collect(Collectors.toList());
-        String ownerName = getUserName(group.getOwnerId());
+        UserDirectory.UserSummary owner = owners.get(group.getOwnerId());
+        String ownerName = owner != null ? owner.getDisplayName() : null;
         
         return GroupDTO.builder()
                 .id(group.getId())
@@ -358,29 +385,41 @@ public class GroupManagementService {
     }
     
     private GroupMembershipDTO mapMembershipToDTO(GroupMembership membership) {
-        String userName = getUserName(membership.getUserId());
+        return mapMembershipToDTO(membership, resolveMembershipUsers(List.of(membership)));
+    }
+    
+    private GroupMembershipDTO mapMembershipToDTO(GroupMembership membership, Map<Long, UserDirectory.UserSummary> users) {
+        UserDirectory.UserSummary user = users.get(membership.getUserId());
+        UserDirectory.UserSummary invitedBy = membership.getInvitedBy() != null ? users.get(membership.getInvitedBy()) : null;
         String groupName = getGroupName(membership.getGroupId());
-        String invitedByName = membership.getInvitedBy() != null ? getUserName(membership.getInvitedBy()) : null;
         
         return GroupMembershipDTO.builder()
                 .id(membership.getId())
                 .groupId(membership.getGroupId())
                 .groupName(groupName)
                 .userId(membership.getUserId())
-                .userName(userName)
+                .userName(user != null ? user.getDisplayName() : null)
+                .userAvatarUrl(user != null ? user.getAvatarUrl() : null)
                 .role(membership.getRole())
                 .status(membership.getStatus())
                 .joinedAt(membership.getJoinedAt())
                 .invitedBy(membership.getInvitedBy())
-                .invitedByName(invitedByName)
+                .invitedByName(invitedBy != null ? invitedBy.getDisplayName() : null)
                 .build();
     }
     
-    private String getUserName(Long userId) {
-        if (userId == null) return null;
-        return userRepository.findById(userId)
-                .map(User::getFullName)
-                .orElse("Unknown User");
+    // One directory lookup for all members and inviters on the page
+    private Map<Long, UserDirectory.UserSummary> resolveMembershipUsers(List<GroupMembership> memberships) {
+        List<Long> userIds = new ArrayList<>(memberships.size() * 2);
+        for (GroupMembership membership : memberships) {
+            userIds.add(membership.getUserId());
+            userIds.add(membership.getInvitedBy());
+        }
+        return userDirectory.resolve(userIds);
+    }
+    
+    private Map<Long, UserDirectory.UserSummary> resolveOwners(List<Group> groups) {
+        return userDirectory.resolve(groups.stream().map(Group::getOwnerId).collect(Collectors.toList()));
     }
     
     private String getGroupName(Long groupId) {
@@ -435,8 +474,9 @@ public class GroupManagementService {
             groupPage = groupRepository.findAll(pageable);
         }
         
+        Map<Long, UserDirectory.UserSummary> owners = resolveOwners(groupPage.getContent());
         List<GroupDTO> groupDTOs = groupPage.getContent().stream()
-                .map(this::mapToDTO)
+                .map(group -> mapToDTO(group, owners))
                 .collect(Collectors.toList());
         
         PageResponse<GroupDTO> pageResponse = PageResponse.<GroupDTO>builder()
@@ -0,0 +1,232 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.modules.collaboration.entity.GroupMembership;
+import com.app.shambabora.modules.collaboration.entity.Post;
+import com.app.shambabora.modules.collaboration.repository.GroupMembershipRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Materialized home timelines (fan-out-on-write).
+ *
+ * When a group post is created or approved its id is pushed, once the transaction commits,
+ * into the bounded timeline of every active member of that group. Only timelines that are
+ * already materialized in memory receive pushes; a cold timeline is loaded from the database
+ * on first read. Pushes and invalidations are also sent to the other nodes over the
+ * {@link ClusterEventBus}, and a timeline is reloaded {@code app.feed.timeline-ttl-ms} after it
+ * was loaded however often it is read, which bounds staleness if an event is lost. Groups with
+ * more members than {@code app.feed.fanout-max-group-size} are not fanned out at all and are
+ * read at request time instead, so one very large cooperative does not blow up write cost.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HomeTimelineStore {
+
+    private static final String FANOUT_CHANNEL = "feed.fanout";
+    private static final String INVALIDATE_CHANNEL = "feed.invalidate";
+
+    private final GroupMembershipRepository groupMembershipRepository;
+    private final ClusterEventBus clusterEventBus;
+
+    @Value("${app.feed.timeline-capacity:500}")
+    private int capacity;
+
+    @Value("${app.feed.fanout-max-group-size:2000}")
+    private int fanoutMaxGroupSize;
+
+    @Value("${app.feed.timeline-idle-ms:3600000}")
+    private long timelineIdleMs;
+
+    @Value("${app.feed.timeline-ttl-ms:600000}")
+    private long timelineTtlMs;
+
+    private final ConcurrentHashMap<Long, Timeline> timelines = new ConcurrentHashMap<>();
+
+    // groupId -> true when the group is too large for fan-out-on-write
+    private final ConcurrentHashMap<Long, Boolean> largeGroups = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void subscribe() {
+        clusterEventBus.subscribe(FANOUT_CHANNEL, values -> {
+            for (int i = 1; i < values.length; i++) {
+                push(values[i], values[0]);
+            }
+        });
+        clusterEventBus.subscribe(INVALIDATE_CHANNEL, values -> timelines.remove(values[0]));
+    }
+
+    /**
+     * Pushes a group post into the timelines of the group's members once the current
+     * transaction commits, so a timeline loaded in between cannot miss it.
+     * General posts (no group) are always read at request time.
+     */
+    public void fanOut(Post post) {
+        if (post.getGroupId() == null) {
+            return;
+        }
+        Long postId = post.getId();
+        Long groupId = post.getGroupId();
+        afterCommit(() -> pushToMembers(postId, groupId));
+    }
+
+    private void pushToMembers(Long postId, Long groupId) {
+        List<Long> memberIds = groupMembershipRepository.findUserIdsByGroupIdAndStatus(
+                groupId, GroupMembership.MembershipStatus.ACTIVE);
+        boolean large = memberIds.size() > fanoutMaxGroupSize;
+        largeGroups.put(groupId, large);
+        if (large) {
+            log.debug("Group {} has {} members, skipping fan-out for post {}", groupId, memberIds.size(), postId);
+            return;
+        }
+        long[] event = new long[memberIds.size() + 1];
+        event[0] = postId;
+        int pushed = 0;
+        for (int i = 0; i < memberIds.size(); i++) {
+            event[i + 1] = memberIds.get(i);
+            if (push(memberIds.get(i), postId)) {
+                pushed++;
+            }
+        }
+        clusterEventBus.publish(FANOUT_CHANNEL, event);
+        log.debug("Fanned out post {} to {} materialized timelines", postId, pushed);
+    }
+
+    private boolean push(long userId, long postId) {
+        Timeline timeline = timelines.get(userId);
+        if (timeline == null) {
+            return false;
+        }
+        timeline.push(postId);
+        return true;
+    }
+
+    public boolean isLargeGroup(Long groupId) {
+        return largeGroups.computeIfAbsent(groupId, id ->
+                groupMembershipRepository.countByGroupIdAndStatus(id, GroupMembership.MembershipStatus.ACTIVE) > fanoutMaxGroupSize);
+    }
+
+    /**
+     * Returns up to {@code limit} post ids from the user's timeline, newest first.
+     * A cold timeline is materialized with {@code loader}, which should return the newest
+     * visible post ids from the user's fan-out groups.
+     */
+    public List<Long> read(Long userId, int limit, Supplier<List<Long>> loader) {
+        Timeline timeline = timelines.get(userId);
+        while (timeline == null || timeline.loadedAt < System.currentTimeMillis() - timelineTtlMs) {
+            Timeline fresh = new Timeline(capacity);
+            // Installed before the query runs, so a post committed meanwhile is pushed into it;
+            // pushes and reads wait on the monitor until the load completes
+            synchronized (fresh) {
+                boolean installed = timeline == null
+                        ? timelines.putIfAbsent(userId, fresh) == null
+                        : timelines.replace(userId, timeline, fresh);
+                if (installed) {
+                    try {
+                        fresh.load(loader.get());
+                    } catch (RuntimeException e) {
+                        timelines.remove(userId, fresh);
+                        throw e;
+                    }
+                    timeline = fresh;
+                    break;
+                }
+            }
+            timeline = timelines.get(userId);
+        }
+        return timeline.newest(limit);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Drops the materialized timeline of a user, e.g. after their group memberships change.
+     */
+    public void invalidate(Long userId) {
+        afterCommit(() -> {
+            timelines.remove(userId);
+            clusterEventBus.publish(INVALIDATE_CHANNEL, userId);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.feed.timeline-sweep-ms:300000}")
+    public void evictIdleTimelines() {
+        long cutoff = System.currentTimeMillis() - timelineIdleMs;
+        int before = timelines.size();
+        long expired = System.currentTimeMillis() - timelineTtlMs;
+        timelines.values().removeIf(timeline -> timeline.lastReadAt < cutoff || timeline.loadedAt < expired);
+        largeGroups.clear();
+        log.debug("Evicted {} idle home timelines", before - timelines.size());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Fixed-size ring of post ids, newest at the head.
+     */
+    private static final class Timeline {
+        private final long[] ids;
+        private int head;
+        private int size;
+        private final long loadedAt = System.currentTimeMillis();
+        private volatile long lastReadAt = loadedAt;
+
+        Timeline(int capacity) {
+            this.ids = new long[capacity];
+        }
+
+        // Loader ids are newest first
+        synchronized void load(List<Long> newestFirst) {
+            for (int i = newestFirst.size() - 1; i >= 0; i--) {
+                push(newestFirst.get(i));
+            }
+        }
+
+        synchronized void push(long postId) {
+            for (int i = 0; i < size; i++) {
+                if (ids[(head + i) % ids.length] == postId) {
+                    return;
+                }
+            }
+            head = (head - 1 + ids.length) % ids.length;
+            ids[head] = postId;
+            if (size < ids.length) {
+                size++;
+            }
+        }
+
+        synchronized List<Long> newest(int limit) {
+            lastReadAt = System.currentTimeMillis();
+            int n = Math.min(limit, size);
+            List<Long> result = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                result.add(ids[(head + i) % ids.length]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-JVM stand-in for the RabbitMQ transport ({@code app.ws.cluster.transport=memory}).
+ *
+ * Receivers are shared by every application context in the JVM, so a test can start two
+ * contexts as two "nodes" and check that a message sent on one reaches sessions on the other
+ * without a broker.
+ */
+@Component
+@Profile("ws")
+@ConditionalOnProperty(name = "app.ws.cluster.transport", havingValue = "memory")
+public class InMemoryStompClusterTransport implements StompClusterTransport {
+
+    private static final List<Consumer<StompEnvelope>> RECEIVERS = new CopyOnWriteArrayList<>();
+
+    private final List<Consumer<StompEnvelope>> ownReceivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(StompEnvelope envelope) {
+        for (Consumer<StompEnvelope> receiver : RECEIVERS) {
+            receiver.accept(envelope);
+        }
+    }
+
+    @Override
+    public void onReceive(Consumer<StompEnvelope> receiver) {
+        ownReceivers.add(receiver);
+        RECEIVERS.add(receiver);
+    }
+
+    @PreDestroy
+    public void close() {
+        RECEIVERS.removeAll(ownReceivers);
+    }
+}
@@ -0,0 +1,22 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Single-node event bus ({@code app.cluster.transport=none}): there are no other nodes to tell.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cluster.transport", havingValue = "none", matchIfMissing = true)
+public class LocalClusterEventBus implements ClusterEventBus {
+
+    @Override
+    public void publish(String channel, long... values) {
+    }
+
+    @Override
+    public void subscribe(String channel, Consumer<long[]> handler) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-node outbound: hands messages straight to this instance's broker.
+ */
+@Component
+@Profile("ws")
+@ConditionalOnProperty(name = "app.ws.cluster.transport", havingValue = "none", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LocalStompOutbound implements StompOutbound {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Override
+    public void send(String destination, Object payload) {
+        messagingTemplate.convertAndSend(destination, payload);
+    }
+
+    @Override
+    public void sendToUser(String user, String destination, Object payload) {
+        messagingTemplate.convertAndSendToUser(user, destination, payload);
+    }
+}
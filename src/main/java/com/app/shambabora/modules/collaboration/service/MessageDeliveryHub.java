@@ -0,0 +1,346 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.common.api.ApiResponse;
+import com.app.shambabora.modules.collaboration.dto.DirectMessageDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Delivers new direct messages to clients that cannot use WebSockets.
+ *
+ * Each recipient has a mailbox of parked long-poll requests and SSE streams. A poll that finds
+ * nothing newer than the client's last message id parks as a {@link DeferredResult}, so it
+ * holds no request thread and runs no query until {@link #publish} wakes it or it times out.
+ *
+ * The mailbox is only a wake-up signal: what a client receives is always read from the
+ * database with the caller's {@link HistoryLoader}, so nothing depends on which node handled
+ * the send. Sends are announced to the other nodes over the {@link ClusterEventBus}. Ids are
+ * assigned at insert but become visible at commit, so a row younger than
+ * {@code app.messages.poll-commit-grace-ms} holds back itself and everything after it until
+ * lower ids still in flight have had time to commit; otherwise a client that moved past it
+ * would skip them for good.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MessageDeliveryHub {
+
+    private static final String DELIVERED_CHANNEL = "dm.delivered";
+
+    private final ClusterEventBus clusterEventBus;
+
+    @Value("${app.messages.poll-mailbox-idle-ms:600000}")
+    private long mailboxIdleMillis;
+
+    @Value("${app.messages.poll-max-batch:200}")
+    private int maxBatch;
+
+    @Value("${app.messages.poll-commit-grace-ms:1000}")
+    private long commitGraceMillis;
+
+    @Value("${app.messages.poll-delivery-threads:4}")
+    private int deliveryThreads;
+
+    private final ConcurrentHashMap<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    // Database reads for woken waiters run here, not on the sender's or the broker's thread
+    private ScheduledExecutorService deliveryExecutor;
+
+    /**
+     * Database read: up to {@code limit} messages to the user with an id above
+     * {@code afterId}, oldest first.
+     */
+    public interface HistoryLoader {
+        List<DirectMessageDTO> load(long afterId, int limit);
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        deliveryExecutor = Executors.newScheduledThreadPool(deliveryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "dm-delivery-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        clusterEventBus.subscribe(DELIVERED_CHANNEL, values -> wake(values[0], values[1]));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deliveryExecutor.shutdownNow();
+    }
+
+    /**
+     * Completes the result immediately with messages newer than {@code afterId}, or parks it
+     * until one arrives. A null {@code afterId} waits for the next message only.
+     */
+    public void poll(Long userId, Long afterId, DeferredResult<ApiResponse<List<DirectMessageDTO>>> result,
+                     HistoryLoader loader) {
+        Waiter waiter = new Waiter(result, afterId, loader);
+        // Park first, then read: a message committed in between wakes the parked waiter
+        register(userId, mailbox -> mailbox.waiters.add(waiter));
+        Runnable cleanup = () -> removeWaiter(userId, waiter);
+        result.onCompletion(cleanup);
+        result.onError(error -> cleanup.run());
+        if (afterId != null) {
+            serve(userId, waiter);
+        }
+    }
+
+    /**
+     * Registers an SSE stream for the user, first replaying anything newer than
+     * {@code lastEventId} (the standard Last-Event-ID reconnect header).
+     */
+    public void subscribe(Long userId, Long lastEventId, SseEmitter emitter, HistoryLoader loader) {
+        Stream stream = new Stream(emitter, lastEventId, loader);
+        register(userId, mailbox -> mailbox.streams.add(stream));
+        Runnable cleanup = () -> removeStream(userId, stream);
+        emitter.onCompletion(cleanup);
+        emitter.onTimeout(cleanup);
+        emitter.onError(error -> cleanup.run());
+        if (lastEventId != null) {
+            deliveryExecutor.execute(() -> serve(userId, stream));
+        }
+    }
+
+    /**
+     * Wakes every parked poll and stream of the recipient, on this node and the others, once
+     * the sending transaction commits.
+     */
+    public void publish(Long recipientId, DirectMessageDTO message) {
+        Runnable announce = () -> {
+            wake(recipientId, message.getId());
+            clusterEventBus.publish(DELIVERED_CHANNEL, recipientId, message.getId());
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            announce.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                announce.run();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.messages.poll-sweep-ms:60000}")
+    public void evictIdleMailboxes() {
+        long cutoff = System.currentTimeMillis() - mailboxIdleMillis;
+        for (Long userId : mailboxes.keySet()) {
+            mailboxes.computeIfPresent(userId, (id, mailbox) -> {
+                synchronized (mailbox) {
+                    if (mailbox.waiters.isEmpty() && mailbox.streams.isEmpty() && mailbox.lastActivityMillis < cutoff) {
+                        mailbox.removed = true;
+                        return null;
+                    }
+                    return mailbox;
+                }
+            });
+        }
+    }
+
+    private void wake(long userId, long messageId) {
+        Mailbox mailbox = mailboxes.get(userId);
+        if (mailbox == null) {
+            return;
+        }
+        List<Waiter> waiters;
+        List<Stream> streams;
+        synchronized (mailbox) {
+            waiters = new ArrayList<>(mailbox.waiters);
+            streams = new ArrayList<>(mailbox.streams);
+        }
+        deliveryExecutor.execute(() -> {
+            // "Next message only" clients start just below the message that woke them
+            for (Waiter waiter : waiters) {
+                waiter.startBelow(messageId);
+                serve(userId, waiter);
+            }
+            for (Stream stream : streams) {
+                stream.startBelow(messageId);
+                serve(userId, stream);
+            }
+        });
+    }
+
+    private void serve(Long userId, Waiter waiter) {
+        Long afterId = waiter.afterId;
+        if (afterId == null || waiter.result.isSetOrExpired()) {
+            return;
+        }
+        Delta delta = read(waiter.loader, afterId);
+        if (!delta.ready.isEmpty()) {
+            waiter.result.setResult(ApiResponse.ok("New messages retrieved", delta.ready));
+        } else if (delta.heldBack) {
+            recheck(() -> serve(userId, waiter));
+        }
+    }
+
+    private void serve(Long userId, Stream stream) {
+        synchronized (stream) {
+            while (stream.position != null && !stream.closed) {
+                Delta delta = read(stream.loader, stream.position);
+                for (DirectMessageDTO message : delta.ready) {
+                    if (!send(userId, stream, message)) {
+                        return;
+                    }
+                    stream.position = message.getId();
+                }
+                if (delta.heldBack) {
+                    recheck(() -> serve(userId, stream));
+                    return;
+                }
+                if (delta.ready.size() < maxBatch) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Rows up to the first one too young to rule out an uncommitted lower id
+    private Delta read(HistoryLoader loader, long afterId) {
+        List<DirectMessageDTO> loaded = loader.load(afterId, maxBatch);
+        Instant settledBefore = Instant.now().minusMillis(commitGraceMillis);
+        int ready = 0;
+        while (ready < loaded.size() && isSettled(loaded.get(ready), settledBefore)) {
+            ready++;
+        }
+        return new Delta(loaded.subList(0, ready), ready < loaded.size());
+    }
+
+    private boolean isSettled(DirectMessageDTO message, Instant settledBefore) {
+        return commitGraceMillis <= 0 || message.getCreatedAt() == null || !message.getCreatedAt().isAfter(settledBefore);
+    }
+
+    private void recheck(Runnable task) {
+        deliveryExecutor.schedule(task, commitGraceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void register(Long userId, Consumer<Mailbox> action) {
+        while (true) {
+            Mailbox mailbox = mailboxes.computeIfAbsent(userId, id -> new Mailbox());
+            synchronized (mailbox) {
+                if (mailbox.removed) {
+                    continue;
+                }
+                action.accept(mailbox);
+                mailbox.touch();
+                return;
+            }
+        }
+    }
+
+    private boolean send(Long userId, Stream stream, DirectMessageDTO message) {
+        try {
+            stream.emitter.send(SseEmitter.event()
+                    .id(String.valueOf(message.getId()))
+                    .name("message")
+                    .data(message));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping SSE stream for user {}: {}", userId, e.getMessage());
+            removeStream(userId, stream);
+            stream.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void removeWaiter(Long userId, Waiter waiter) {
+        Mailbox mailbox = mailboxes.get(userId);
+        if (mailbox != null) {
+            synchronized (mailbox) {
+                mailbox.waiters.remove(waiter);
+            }
+        }
+    }
+
+    private void removeStream(Long userId, Stream stream) {
+        stream.closed = true;
+        Mailbox mailbox = mailboxes.get(userId);
+        if (mailbox != null) {
+            synchronized (mailbox) {
+                mailbox.streams.remove(stream);
+            }
+        }
+    }
+
+    private static final class Delta {
+        private final List<DirectMessageDTO> ready;
+        private final boolean heldBack;
+
+        Delta(List<DirectMessageDTO> ready, boolean heldBack) {
+            this.ready = ready;
+            this.heldBack = heldBack;
+        }
+    }
+
+    private static final class Waiter {
+        private final DeferredResult<ApiResponse<List<DirectMessageDTO>>> result;
+        private final HistoryLoader loader;
+        private volatile Long afterId;
+
+        Waiter(DeferredResult<ApiResponse<List<DirectMessageDTO>>> result, Long afterId, HistoryLoader loader) {
+            this.result = result;
+            this.afterId = afterId;
+            this.loader = loader;
+        }
+
+        synchronized void startBelow(long messageId) {
+            if (afterId == null) {
+                afterId = messageId - 1;
+            }
+        }
+    }
+
+    private static final class Stream {
+        private final SseEmitter emitter;
+        private final HistoryLoader loader;
+        // Id of the last message sent; guarded by the stream
+        private Long position;
+        private volatile boolean closed;
+
+        Stream(SseEmitter emitter, Long position, HistoryLoader loader) {
+            this.emitter = emitter;
+            this.position = position;
+            this.loader = loader;
+        }
+
+        synchronized void startBelow(long messageId) {
+            if (position == null) {
+                position = messageId - 1;
+            }
+        }
+    }
+
+    private static final class Mailbox {
+        private final List<Waiter> waiters = new ArrayList<>();
+        private final List<Stream> streams = new ArrayList<>();
+        private long lastActivityMillis = System.currentTimeMillis();
+        private boolean removed;
+
+        void touch() {
+            lastActivityMillis = System.currentTimeMillis();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.app.shambabora.modules.collaboration.service;
 
+import com.app.shambabora.common.api.CursorPageResponse;
+import com.app.shambabora.common.api.PageCursor;
 import com.app.shambabora.common.exception.BadRequestException;
 import com.app.shambabora.common.exception.NotFoundException;
 import com.app.shambabora.modules.collaboration.dto.MessageDTO;
@@ -14,6 +16,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -47,6 +52,16 @@ public class MessageService {
                 .map(this::toDto);
     }
 
+    public CursorPageResponse<MessageDTO> listByCursor(Long groupId, String cursorToken, int size) {
+        PageCursor cursor = PageCursor.decode(cursorToken);
+        int limit = CursorPageResponse.clampSize(size);
+        List<Message> rows = messageRepository.findByGroupIdBefore(groupId,
+                cursor != null ? cursor.getCreatedAt() : null, cursor != null ? cursor.getId() : null,
+                PageRequest.of(0, limit + 1));
+        return CursorPageResponse.of(rows, limit, Message::getSentAt, Message::getId,
+                messages -> messages.stream().map(this::toDto).collect(Collectors.toList()));
+    }
+
     private MessageDTO toDto(Message entity) {
         MessageDTO dto = new MessageDTO();
         dto.setId(entity.getId());
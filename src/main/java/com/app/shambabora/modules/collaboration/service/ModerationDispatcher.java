@@ -0,0 +1,329 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.common.exception.BadRequestException;
+import com.app.shambabora.common.exception.NotFoundException;
+import com.app.shambabora.modules.collaboration.entity.Post;
+import com.app.shambabora.modules.collaboration.entity.PostComment;
+import com.app.shambabora.modules.collaboration.repository.PostCommentRepository;
+import com.app.shambabora.modules.collaboration.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Hands out moderation work so that no two moderators review the same item.
+ *
+ * Pending posts and comments sit in a concurrent skip-list ordered flagged-first, then oldest
+ * first. {@link #lease} atomically pops items off the head and records them under a lease that
+ * expires after {@code app.moderation.lease-timeout-ms}; expired or released leases put their
+ * unfinished items back in the queue. Moderating an item removes it for good. The queue is
+ * loaded from the database on startup and reconciled with it periodically.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ModerationDispatcher {
+
+    public enum ItemType {
+        POST,
+        COMMENT
+    }
+
+    private static final Comparator<Entry> PRIORITY = Comparator
+            .comparing((Entry e) -> !e.flagged)
+            .thenComparingLong(e -> e.createdAtMillis)
+            .thenComparing(e -> e.key.type)
+            .thenComparingLong(e -> e.key.id);
+
+    private final PostRepository postRepository;
+    private final PostCommentRepository postCommentRepository;
+
+    @Value("${app.moderation.lease-timeout-ms:600000}")
+    private long leaseTimeoutMs;
+
+    @Value("${app.moderation.max-lease-size:50}")
+    private int maxLeaseSize;
+
+    private final ConcurrentSkipListSet<Entry> queue = new ConcurrentSkipListSet<>(PRIORITY);
+
+    // Items currently in the queue, mapped to their entry in it
+    private final ConcurrentHashMap<ItemKey, Entry> queued = new ConcurrentHashMap<>();
+
+    // Items currently out on a lease, mapped to the lease id
+    private final ConcurrentHashMap<ItemKey, String> leasedBy = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Lease> leases = new ConcurrentHashMap<>();
+
+    public void enqueue(ItemType type, Long id, Instant createdAt) {
+        add(new Entry(new ItemKey(type, id), toMillis(createdAt), false));
+    }
+
+    /**
+     * Moves an item ahead of unflagged work, queueing it if it is not already pending.
+     */
+    public void flag(ItemType type, Long id, Instant createdAt) {
+        ItemKey key = new ItemKey(type, id);
+        String leaseId = leasedBy.get(key);
+        if (leaseId != null) {
+            Lease lease = leases.get(leaseId);
+            if (lease != null) {
+                lease.entries.computeIfPresent(key, (k, e) -> e.withFlag());
+            }
+            return;
+        }
+        Entry updated = queued.computeIfPresent(key, (k, old) -> {
+            Entry flagged = old.withFlag();
+            queue.remove(old);
+            queue.add(flagged);
+            return flagged;
+        });
+        if (updated == null) {
+            add(new Entry(key, toMillis(createdAt), true));
+        }
+    }
+
+    /**
+     * Removes an item from the queue and from any lease, e.g. once it has been moderated.
+     */
+    public void complete(ItemType type, Long id) {
+        ItemKey key = new ItemKey(type, id);
+        Entry entry = queued.remove(key);
+        if (entry != null) {
+            queue.remove(entry);
+        }
+        String leaseId = leasedBy.remove(key);
+        if (leaseId != null) {
+            Lease lease = leases.get(leaseId);
+            if (lease != null) {
+                lease.entries.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Leases up to {@code limit} items from the head of the queue to a moderator.
+     */
+    public LeaseGrant lease(Long moderatorId, int limit) {
+        int n = Math.max(1, Math.min(limit, maxLeaseSize));
+        String leaseId = UUID.randomUUID().toString();
+        Lease lease = new Lease(leaseId, moderatorId, Instant.now().plusMillis(leaseTimeoutMs));
+        leases.put(leaseId, lease);
+        List<WorkItem> items = new ArrayList<>(n);
+        while (items.size() < n) {
+            Entry entry = queue.pollFirst();
+            if (entry == null) {
+                break;
+            }
+            // Claim the key before dropping it from the queued map so a concurrent enqueue does not re-add it
+            leasedBy.put(entry.key, leaseId);
+            if (!queued.remove(entry.key, entry)) {
+                // Superseded by a flagged copy (or completed) while we were polling
+                leasedBy.remove(entry.key, leaseId);
+                continue;
+            }
+            lease.entries.put(entry.key, entry);
+            items.add(new WorkItem(entry.key.type, entry.key.id, entry.flagged));
+        }
+        if (items.isEmpty()) {
+            leases.remove(leaseId);
+        }
+        log.info("Leased {} moderation items to moderator {} ({} still queued)", items.size(), moderatorId, queued.size());
+        return new LeaseGrant(leaseId, lease.expiresAt, items);
+    }
+
+    /**
+     * Returns the unfinished items of a lease to the queue.
+     */
+    public int release(String leaseId, Long moderatorId) {
+        Lease lease = leases.get(leaseId);
+        if (lease == null) {
+            throw new NotFoundException("Lease not found or already expired");
+        }
+        if (moderatorId != null && lease.moderatorId != null && !moderatorId.equals(lease.moderatorId)) {
+            throw new BadRequestException("Lease belongs to another moderator");
+        }
+        return returnToQueue(leaseId);
+    }
+
+    public int getQueuedCount() {
+        return queued.size();
+    }
+
+    public int getLeasedCount() {
+        return leasedBy.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.moderation.lease-sweep-ms:15000}")
+    public void expireLeases() {
+        Instant now = Instant.now();
+        for (Lease lease : leases.values()) {
+            if (lease.expiresAt.isBefore(now)) {
+                int returned = returnToQueue(lease.leaseId);
+                log.info("Lease {} of moderator {} expired, {} items returned to the queue", lease.leaseId, lease.moderatorId, returned);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        resync();
+    }
+
+    /**
+     * Adds pending items missing from the queue and drops unflagged entries that are no longer
+     * pending, covering any state change that did not go through {@link #complete}.
+     */
+    @Scheduled(fixedDelayString = "${app.moderation.queue-resync-ms:300000}", initialDelayString = "${app.moderation.queue-resync-ms:300000}")
+    public void resync() {
+        Set<ItemKey> pending = new HashSet<>();
+        for (Object[] row : postRepository.findIdAndCreatedAtByStatus(Post.PostStatus.PENDING_MODERATION)) {
+            ItemKey key = new ItemKey(ItemType.POST, (Long) row[0]);
+            pending.add(key);
+            add(new Entry(key, toMillis((Instant) row[1]), false));
+        }
+        for (Object[] row : postCommentRepository.findIdAndCreatedAtByStatus(PostComment.CommentStatus.PENDING_MODERATION)) {
+            ItemKey key = new ItemKey(ItemType.COMMENT, (Long) row[0]);
+            pending.add(key);
+            add(new Entry(key, toMillis((Instant) row[1]), false));
+        }
+        int dropped = 0;
+        for (Map.Entry<ItemKey, Entry> e : queued.entrySet()) {
+            if (!e.getValue().flagged && !pending.contains(e.getKey()) && queued.remove(e.getKey(), e.getValue())) {
+                queue.remove(e.getValue());
+                dropped++;
+            }
+        }
+        log.info("Moderation queue resynced: {} queued, {} leased, {} stale entries dropped", queued.size(), leasedBy.size(), dropped);
+    }
+
+    private void add(Entry entry) {
+        if (leasedBy.containsKey(entry.key)) {
+            return;
+        }
+        if (queued.putIfAbsent(entry.key, entry) == null) {
+            queue.add(entry);
+        }
+    }
+
+    private int returnToQueue(String leaseId) {
+        Lease lease = leases.remove(leaseId);
+        if (lease == null) {
+            return 0;
+        }
+        int returned = 0;
+        for (Entry entry : lease.entries.values()) {
+            if (leasedBy.remove(entry.key, leaseId)) {
+                add(entry);
+                returned++;
+            }
+        }
+        return returned;
+    }
+
+    private static long toMillis(Instant instant) {
+        return instant != null ? instant.toEpochMilli() : System.currentTimeMillis();
+    }
+
+    /**
+     * An item handed to a moderator as part of a lease.
+     */
+    public static final class WorkItem {
+        private final ItemType type;
+        private final long id;
+        private final boolean flagged;
+
+        WorkItem(ItemType type, long id, boolean flagged) {
+            this.type = type;
+            this.id = id;
+            this.flagged = flagged;
+        }
+
+        public ItemType getType() { return type; }
+        public long getId() { return id; }
+        public boolean isFlagged() { return flagged; }
+    }
+
+    public static final class LeaseGrant {
+        private final String leaseId;
+        private final Instant expiresAt;
+        private final List<WorkItem> items;
+
+        LeaseGrant(String leaseId, Instant expiresAt, List<WorkItem> items) {
+            this.leaseId = leaseId;
+            this.expiresAt = expiresAt;
+            this.items = items;
+        }
+
+        public String getLeaseId() { return leaseId; }
+        public Instant getExpiresAt() { return expiresAt; }
+        public List<WorkItem> getItems() { return items; }
+    }
+
+    private static final class ItemKey {
+        private final ItemType type;
+        private final long id;
+
+        ItemKey(ItemType type, long id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ItemKey)) return false;
+            ItemKey other = (ItemKey) o;
+            return id == other.id && type == other.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, id);
+        }
+    }
+
+    private static final class Entry {
+        private final ItemKey key;
+        private final long createdAtMillis;
+        private final boolean flagged;
+
+        Entry(ItemKey key, long createdAtMillis, boolean flagged) {
+            this.key = key;
+            this.createdAtMillis = createdAtMillis;
+            this.flagged = flagged;
+        }
+
+        Entry withFlag() {
+            return flagged ? this : new Entry(key, createdAtMillis, true);
+        }
+    }
+
+    private static final class Lease {
+        private final String leaseId;
+        private final Long moderatorId;
+        private final Instant expiresAt;
+        private final Map<ItemKey, Entry> entries = new ConcurrentHashMap<>();
+
+        Lease(String leaseId, Long moderatorId, Instant expiresAt) {
+            this.leaseId = leaseId;
+            this.moderatorId = moderatorId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
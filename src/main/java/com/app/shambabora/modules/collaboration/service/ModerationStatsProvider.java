@@ -0,0 +1,108 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.modules.collaboration.entity.Post;
+import com.app.shambabora.modules.collaboration.entity.PostComment;
+import com.app.shambabora.modules.collaboration.repository.PostCommentRepository;
+import com.app.shambabora.modules.collaboration.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory post/comment counts per moderation status for the admin dashboards.
+ *
+ * Counts are loaded with one {@code GROUP BY status} query per table and then kept current by
+ * the create and moderate paths in PostService. A periodic resync replaces them with fresh
+ * database counts, which also corrects any drift from rolled back transactions.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ModerationStatsProvider {
+
+    private final PostRepository postRepository;
+    private final PostCommentRepository postCommentRepository;
+
+    // Indexed by PostStatus / CommentStatus ordinal
+    private volatile AtomicLongArray postCounts = new AtomicLongArray(Post.PostStatus.values().length);
+    private volatile AtomicLongArray commentCounts = new AtomicLongArray(PostComment.CommentStatus.values().length);
+
+    public void postCreated(Post.PostStatus status) {
+        postCounts.incrementAndGet(status.ordinal());
+    }
+
+    public void postStatusChanged(Post.PostStatus from, Post.PostStatus to) {
+        if (from == to) {
+            return;
+        }
+        AtomicLongArray counts = postCounts;
+        if (from != null) {
+            counts.decrementAndGet(from.ordinal());
+        }
+        counts.incrementAndGet(to.ordinal());
+    }
+
+    public void commentCreated(PostComment.CommentStatus status) {
+        commentCounts.incrementAndGet(status.ordinal());
+    }
+
+    public void commentStatusChanged(PostComment.CommentStatus from, PostComment.CommentStatus to) {
+        if (from == to) {
+            return;
+        }
+        AtomicLongArray counts = commentCounts;
+        if (from != null) {
+            counts.decrementAndGet(from.ordinal());
+        }
+        counts.incrementAndGet(to.ordinal());
+    }
+
+    public long getPostCount(Post.PostStatus status) {
+        return Math.max(0, postCounts.get(status.ordinal()));
+    }
+
+    public long getTotalPosts() {
+        return sum(postCounts);
+    }
+
+    public long getCommentCount(PostComment.CommentStatus status) {
+        return Math.max(0, commentCounts.get(status.ordinal()));
+    }
+
+    public long getTotalComments() {
+        return sum(commentCounts);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        resync();
+    }
+
+    @Scheduled(fixedDelayString = "${app.moderation.stats-resync-ms:300000}", initialDelayString = "${app.moderation.stats-resync-ms:300000}")
+    public void resync() {
+        AtomicLongArray posts = new AtomicLongArray(Post.PostStatus.values().length);
+        for (Object[] row : postRepository.countGroupByStatus()) {
+            posts.set(((Post.PostStatus) row[0]).ordinal(), (Long) row[1]);
+        }
+        AtomicLongArray comments = new AtomicLongArray(PostComment.CommentStatus.values().length);
+        for (Object[] row : postCommentRepository.countGroupByStatus()) {
+            comments.set(((PostComment.CommentStatus) row[0]).ordinal(), (Long) row[1]);
+        }
+        postCounts = posts;
+        commentCounts = comments;
+        log.debug("Moderation stats resynced: {} posts, {} comments", sum(posts), sum(comments));
+    }
+
+    private static long sum(AtomicLongArray counts) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += Math.max(0, counts.get(i));
+        }
+        return total;
+    }
+}
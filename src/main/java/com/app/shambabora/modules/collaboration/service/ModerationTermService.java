@@ -0,0 +1,92 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.common.api.ApiResponse;
+import com.app.shambabora.common.exception.BadRequestException;
+import com.app.shambabora.common.exception.NotFoundException;
+import com.app.shambabora.modules.collaboration.dto.ModerationTermDTO;
+import com.app.shambabora.modules.collaboration.entity.ModerationTerm;
+import com.app.shambabora.modules.collaboration.repository.ModerationTermRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ModerationTermService {
+    
+    private final ModerationTermRepository moderationTermRepository;
+    private final ContentPreScreener contentPreScreener;
+    
+    public ApiResponse<List<ModerationTermDTO>> listTerms() {
+        List<ModerationTermDTO> terms = moderationTermRepository.findAllByOrderByTypeAscTermAsc().stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+        return ApiResponse.ok("Moderation terms retrieved successfully", terms);
+    }
+    
+    @Transactional
+    public ApiResponse<ModerationTermDTO> createTerm(ModerationTermDTO dto, Long adminId) {
+        if (dto.getType() == null) {
+            throw new BadRequestException("Term type is required");
+        }
+        String term = dto.getTerm() != null ? dto.getTerm().trim() : "";
+        if (term.isEmpty()) {
+            throw new BadRequestException("Term is required");
+        }
+        if (dto.getType() == ModerationTerm.TermType.PHONE_PATTERN
+                && (!term.matches("[0-9#+ ().-]+") || ContentPreScreener.normalizePhonePattern(term).length() < 6)) {
+            throw new BadRequestException("Phone patterns may only contain digits, '#', '+' and separators, with at least 6 digits");
+        }
+        if (moderationTermRepository.existsByTermIgnoreCaseAndType(term, dto.getType())) {
+            throw new BadRequestException("Term already exists");
+        }
+        
+        ModerationTerm saved = moderationTermRepository.save(ModerationTerm.builder()
+                .term(term)
+                .type(dto.getType())
+                .active(dto.getActive() == null || dto.getActive())
+                .createdBy(adminId)
+                .build());
+        log.info("Admin {} added moderation term {} ({})", adminId, saved.getId(), saved.getType());
+        contentPreScreener.reload();
+        
+        return ApiResponse.ok("Moderation term created", mapToDTO(saved));
+    }
+    
+    @Transactional
+    public ApiResponse<ModerationTermDTO> setActive(Long termId, boolean active) {
+        ModerationTerm term = moderationTermRepository.findById(termId)
+                .orElseThrow(() -> new NotFoundException("Moderation term not found"));
+        term.setActive(active);
+        ModerationTerm saved = moderationTermRepository.save(term);
+        contentPreScreener.reload();
+        return ApiResponse.ok("Moderation term updated", mapToDTO(saved));
+    }
+    
+    @Transactional
+    public ApiResponse<Void> deleteTerm(Long termId) {
+        if (!moderationTermRepository.existsById(termId)) {
+            throw new NotFoundException("Moderation term not found");
+        }
+        moderationTermRepository.deleteById(termId);
+        moderationTermRepository.flush();
+        contentPreScreener.reload();
+        return ApiResponse.ok("Moderation term deleted", null);
+    }
+    
+    private ModerationTermDTO mapToDTO(ModerationTerm term) {
+        return ModerationTermDTO.builder()
+                .id(term.getId())
+                .term(term.getTerm())
+                .type(term.getType())
+                .active(term.isActive())
+                .createdBy(term.getCreatedBy())
+                .createdAt(term.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.modules.collaboration.event.NotificationEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends {@link NotificationEvent}s to WebSocket clients after the publishing transaction
+ * commits, off the request thread.
+ *
+ * Committed events go into a bounded queue ({@code app.notifications.queue-capacity}) that a
+ * single dispatch thread drains in batches. Each batch is grouped by destination so events for
+ * one topic or user go out together and in order; for superseding events such as unread counts
+ * only the latest is sent. Rolled back transactions publish nothing, and request latency no
+ * longer includes serialization or broker work. When the queue is full the event is dropped
+ * and counted: notifications are best effort, the data itself is already committed.
+ */
+@Component
+@Profile("ws")
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationEventDispatcher {
+
+    private final NotificationService notificationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.notifications.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.notifications.max-batch:500}")
+    private int maxBatch;
+
+    private BlockingQueue<NotificationEvent> queue;
+    private Counter droppedEvents;
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("notifications.queue.size", queue, BlockingQueue::size)
+                .description("Committed notification events waiting to be dispatched")
+                .register(meterRegistry);
+        droppedEvents = Counter.builder("notifications.dropped")
+                .description("Notification events dropped because the dispatch queue was full")
+                .register(meterRegistry);
+        running = true;
+        worker = new Thread(this::run, "notification-dispatch");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Default phase is AFTER_COMMIT; events published outside a transaction are queued at once
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvent(NotificationEvent event) {
+        submit(event);
+    }
+
+    /**
+     * Queues an event directly, for callers that already run after commit (a listener
+     * registered from an afterCommit callback would never fire).
+     */
+    public void submit(NotificationEvent event) {
+        if (!queue.offer(event)) {
+            droppedEvents.increment();
+            log.warn("Notification queue full, dropping event for {}", event.getDestination());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void run() {
+        List<NotificationEvent> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                NotificationEvent first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<NotificationEvent> batch) {
+        Map<String, List<NotificationEvent>> byDestination = new LinkedHashMap<>();
+        for (NotificationEvent event : batch) {
+            byDestination.computeIfAbsent(event.getDestination(), destination -> new ArrayList<>()).add(event);
+        }
+        for (List<NotificationEvent> events : byDestination.values()) {
+            int lastSuperseding = -1;
+            for (int i = 0; i < events.size(); i++) {
+                if (events.get(i).supersedesPrevious()) {
+                    lastSuperseding = i;
+                }
+            }
+            for (int i = 0; i < events.size(); i++) {
+                NotificationEvent event = events.get(i);
+                if (event.supersedesPrevious() && i != lastSuperseding) {
+                    continue;
+                }
+                try {
+                    event.dispatch(notificationService);
+                } catch (RuntimeException e) {
+                    log.error("Failed to dispatch notification to {}", event.getDestination(), e);
+                }
+            }
+        }
+    }
+}
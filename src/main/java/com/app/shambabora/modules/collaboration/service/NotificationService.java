@@ -5,63 +5,87 @@ import com.app.shambabora.modules.collaboration.dto.PostDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 @Profile("ws")
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
     
-    private final SimpMessagingTemplate messagingTemplate;
+    private final StompOutbound outbound;
+    private final PostActivityCoalescer postActivityCoalescer;
     
     public void notifyNewPost(PostDTO post) {
         log.info("Notifying about new post: {}", post.getId());
         
         if (post.getGroupId() != null) {
-            messagingTemplate.convertAndSend("/topic/group." + post.getGroupId(), post);
+            outbound.send("/topic/group." + post.getGroupId(), post);
         } else {
-            messagingTemplate.convertAndSend("/topic/feed", post);
+            outbound.send("/topic/feed", post);
         }
     }
     
     public void notifyNewMessage(DirectMessageDTO message) {
         log.info("Notifying about new message: {}", message.getId());
         
-        messagingTemplate.convertAndSendToUser(
+        outbound.sendToUser(
                 message.getRecipientId().toString(),
                 "/queue/messages",
                 message
         );
     }
     
+    /**
+     * Pushes the user's current unread direct message count to /user/queue/unread.
+     */
+    public void notifyUnreadCount(Long userId, long unreadCount) {
+        log.debug("Notifying user {} of unread count {}", userId, unreadCount);
+        
+        outbound.sendToUser(userId.toString(), "/queue/unread", new UnreadCountNotification(unreadCount));
+    }
+    
+    /**
+     * Likes and comments are coalesced per post and go out as one {@link PostActivityNotification}
+     * per tick, see {@link PostActivityCoalescer}.
+     */
     public void notifyPostLike(Long postId, Long userId, String action) {
-        log.info("Notifying about post like: post={}, user={}, action={}", postId, userId, action);
+        log.debug("Queueing post like notification: post={}, user={}, action={}", postId, userId, action);
         
-        LikeNotification notification = new LikeNotification(postId, userId, action);
-        messagingTemplate.convertAndSend("/topic/post." + postId, notification);
+        postActivityCoalescer.like(postId, userId, action);
     }
     
     public void notifyPostComment(Long postId, Long userId, String content) {
-        log.info("Notifying about post comment: post={}, user={}", postId, userId);
+        log.debug("Queueing post comment notification: post={}, user={}", postId, userId);
         
-        CommentNotification notification = new CommentNotification(postId, userId, content);
-        messagingTemplate.convertAndSend("/topic/post." + postId, notification);
+        postActivityCoalescer.comment(postId, userId, content);
     }
     
     public void notifyGroupUpdate(Long groupId, String updateType, Object data) {
         log.info("Notifying about group update: group={}, type={}", groupId, updateType);
         
         GroupUpdateNotification notification = new GroupUpdateNotification(groupId, updateType, data);
-        messagingTemplate.convertAndSend("/topic/group." + groupId, notification);
+        outbound.send("/topic/group." + groupId, notification);
     }
     
     public void notifyModerationUpdate(Long postId, String status, String notes) {
         log.info("Notifying about moderation update: post={}, status={}", postId, status);
         
         ModerationNotification notification = new ModerationNotification(postId, status, notes);
-        messagingTemplate.convertAndSend("/topic/post." + postId, notification);
+        outbound.send("/topic/post." + postId, notification);
+    }
+    
+    /**
+     * Sends the outcome of a bulk moderation as a single message instead of one per item.
+     */
+    public void notifyModerationBatch(String status, String notes, List<Long> postIds, List<Long> commentIds) {
+        log.info("Notifying about bulk moderation: status={}, posts={}, comments={}", status, postIds.size(), commentIds.size());
+        
+        ModerationBatchNotification notification = new ModerationBatchNotification(status, notes, postIds, commentIds);
+        outbound.send("/topic/moderation", notification);
     }
     
     public static class LikeNotification {
@@ -139,4 +163,81 @@ public class NotificationService {
         public String getNotes() { return notes; }
         public long getTimestamp() { return timestamp; }
     }
+    
+    public static class UnreadCountNotification {
+        private long unreadCount;
+        private long timestamp;
+        
+        public UnreadCountNotification(long unreadCount) {
+            this.unreadCount = unreadCount;
+            this.timestamp = System.currentTimeMillis();
+        }
+        
+        public long getUnreadCount() { return unreadCount; }
+        public long getTimestamp() { return timestamp; }
+    }
+    
+    public static class ModerationBatchNotification {
+        private String status;
+        private String notes;
+        private List<Long> postIds;
+        private List<Long> commentIds;
+        private long timestamp;
+        
+        public ModerationBatchNotification(String status, String notes, List<Long> postIds, List<Long> commentIds) {
+            this.status = status;
+            this.notes = notes;
+            this.postIds = postIds;
+            this.commentIds = commentIds;
+            this.timestamp = System.currentTimeMillis();
+        }
+        
+        public String getStatus() { return status; }
+        public String getNotes() { return notes; }
+        public List<Long> getPostIds() { return postIds; }
+        public List<Long> getCommentIds() { return commentIds; }
+        public long getTimestamp() { return timestamp; }
+    }
+    
+    /**
+     * Everything that happened to a post during one coalescing tick, e.g. "+37 likes, 4 new comments".
+     */
+    public static class PostActivityNotification {
+        private Long postId;
+        private int likesAdded;
+        private int likesRemoved;
+        private int newComments;
+        private List<CommentNotification> recentComments;
+        private long timestamp;
+        
+        public PostActivityNotification(Long postId, int likesAdded, int likesRemoved, int newComments,
+                                        List<CommentNotification> recentComments) {
+            this.postId = postId;
+            this.likesAdded = likesAdded;
+            this.likesRemoved = likesRemoved;
+            this.newComments = newComments;
+            this.recentComments = recentComments;
+            this.timestamp = System.currentTimeMillis();
+        }
+        
+        public Long getPostId() { return postId; }
+        public String getAction() { return "activity"; }
+        public int getLikesAdded() { return likesAdded; }
+        public int getLikesRemoved() { return likesRemoved; }
+        public int getLikeDelta() { return likesAdded - likesRemoved; }
+        public int getNewComments() { return newComments; }
+        public List<CommentNotification> getRecentComments() { return recentComments; }
+        public long getTimestamp() { return timestamp; }
+        
+        public String getSummary() {
+            List<String> parts = new ArrayList<>(3);
+            if (getLikeDelta() != 0) {
+                parts.add(String.format("%+d %s", getLikeDelta(), Math.abs(getLikeDelta()) == 1 ? "like" : "likes"));
+            }
+            if (newComments > 0) {
+                parts.add(newComments + (newComments == 1 ? " new comment" : " new comments"));
+            }
+            return String.join(", ", parts);
+        }
+    }
 }
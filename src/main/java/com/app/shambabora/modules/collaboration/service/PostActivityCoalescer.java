@@ -0,0 +1,122 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Batches like and comment notifications per post into one frame per tick.
+ *
+ * A popular post used to push one frame per like to every subscriber of
+ * {@code /topic/post.{id}}. Events are now counted per post and every
+ * {@code app.ws.coalesce.tick-ms} each post with activity gets a single
+ * {@link NotificationService.PostActivityNotification}. A buffer is a few counters plus at
+ * most {@code app.ws.coalesce.max-comments} recent comments, and at most
+ * {@code app.ws.coalesce.max-posts} posts are buffered at once; events for further posts are
+ * sent straight away rather than held.
+ */
+@Component
+@Profile("ws")
+@RequiredArgsConstructor
+@Slf4j
+public class PostActivityCoalescer {
+
+    private final StompOutbound outbound;
+
+    @Value("${app.ws.coalesce.max-posts:10000}")
+    private int maxPosts;
+
+    @Value("${app.ws.coalesce.max-comments:5}")
+    private int maxComments;
+
+    private final ConcurrentHashMap<Long, Activity> pending = new ConcurrentHashMap<>();
+
+    public void like(Long postId, Long userId, String action) {
+        record(postId, activity -> {
+            if ("unlike".equals(action)) {
+                activity.likesRemoved++;
+            } else {
+                activity.likesAdded++;
+            }
+        });
+    }
+
+    public void comment(Long postId, Long userId, String content) {
+        record(postId, activity -> {
+            activity.newComments++;
+            activity.recentComments.addLast(new NotificationService.CommentNotification(postId, userId, content));
+            while (activity.recentComments.size() > maxComments) {
+                activity.recentComments.pollFirst();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.ws.coalesce.tick-ms:200}")
+    public void flush() {
+        for (Long postId : pending.keySet()) {
+            Activity activity = pending.remove(postId);
+            if (activity == null) {
+                continue;
+            }
+            NotificationService.PostActivityNotification notification;
+            synchronized (activity) {
+                activity.closed = true;
+                notification = activity.toNotification(postId);
+            }
+            send(notification);
+        }
+    }
+
+    private void record(Long postId, Consumer<Activity> update) {
+        while (true) {
+            Activity activity = pending.get(postId);
+            if (activity == null) {
+                if (pending.size() >= maxPosts) {
+                    // Too many hot posts at once: don't buffer more, send this event on its own
+                    Activity single = new Activity();
+                    update.accept(single);
+                    send(single.toNotification(postId));
+                    return;
+                }
+                activity = pending.computeIfAbsent(postId, id -> new Activity());
+            }
+            synchronized (activity) {
+                if (activity.closed) {
+                    // Flushed between lookup and lock; the next iteration starts a new buffer
+                    continue;
+                }
+                update.accept(activity);
+                return;
+            }
+        }
+    }
+
+    private void send(NotificationService.PostActivityNotification notification) {
+        try {
+            outbound.send("/topic/post." + notification.getPostId(), notification);
+        } catch (RuntimeException e) {
+            log.warn("Failed to send activity for post {}: {}", notification.getPostId(), e.getMessage());
+        }
+    }
+
+    private static final class Activity {
+        private int likesAdded;
+        private int likesRemoved;
+        private int newComments;
+        private final ArrayDeque<NotificationService.CommentNotification> recentComments = new ArrayDeque<>();
+        private boolean closed;
+
+        NotificationService.PostActivityNotification toNotification(Long postId) {
+            return new NotificationService.PostActivityNotification(postId, likesAdded, likesRemoved, newComments,
+                    new ArrayList<>(recentComments));
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for the denormalized {@code like_count} / {@code comment_count}
+ * columns on posts.
+ *
+ * Deltas are spread over a fixed set of lock stripes so that concurrent likes on the
+ * same post do not contend on a single lock, and a background flusher applies them to
+ * MySQL in one transactional batch of {@code UPDATE ... SET like_count = like_count + ?}
+ * statements.
+ * Deltas are held per transaction and only buffered once it commits, so a rolled back like
+ * never reaches the counters. Any other drift is corrected by the nightly {@link #repair()}.
+ * When {@code ddl-auto=update} adds the columns ahead of V5 they start at 0 for every post,
+ * so the same recompute also runs on startup if any post with likes or comments reads 0.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostCounterBuffer {
+
+    private static final int STRIPES = 16;
+
+    private static final String FLUSH_SQL =
+            "UPDATE posts SET like_count = like_count + ?, comment_count = comment_count + ? WHERE id = ?";
+
+    private static final String REPAIR_SQL =
+            "UPDATE posts p SET " +
+            "like_count = (SELECT COUNT(*) FROM post_likes pl WHERE pl.post_id = p.id), " +
+            "comment_count = (SELECT COUNT(*) FROM post_comments pc WHERE pc.post_id = p.id AND pc.status = 'ACTIVE')";
+
+    // Posts whose counter reads 0 although rows exist: the columns were added without V5's backfill
+    private static final String UNPOPULATED_SQL =
+            "SELECT 1 FROM posts p WHERE " +
+            "(p.like_count = 0 AND EXISTS (SELECT 1 FROM post_likes pl WHERE pl.post_id = p.id)) OR " +
+            "(p.comment_count = 0 AND EXISTS (SELECT 1 FROM post_comments pc WHERE pc.post_id = p.id AND pc.status = 'ACTIVE')) LIMIT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.posts.counter-startup-repair.enabled:true}")
+    private boolean startupRepairEnabled;
+
+    private final Stripe[] stripes = createStripes();
+
+    // Deltas taken out of the stripes but not yet committed to the database
+    private volatile Map<Long, long[]> inFlight = Map.of();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public void recordLike(Long postId, int delta) {
+        record(postId, delta, 0);
+    }
+
+    public void recordComment(Long postId, int delta) {
+        record(postId, 0, delta);
+    }
+
+    /**
+     * Returns the like/comment deltas not yet written to the database, keyed by post id.
+     * Each value is {@code [likeDelta, commentDelta]}. Includes the calling transaction's own
+     * uncommitted deltas, so a response built inside it already counts them.
+     */
+    public Map<Long, long[]> pending(Collection<Long> postIds) {
+        Map<Long, long[]> result = new HashMap<>();
+        Map<Long, long[]> uncommitted = uncommitted();
+        if (uncommitted != null) {
+            for (Long postId : postIds) {
+                long[] d = uncommitted.get(postId);
+                if (d != null) {
+                    merge(result, postId, d[0], d[1]);
+                }
+            }
+        }
+        Map<Long, long[]> flushing = inFlight;
+        for (Long postId : postIds) {
+            long[] d = flushing.get(postId);
+            if (d != null) {
+                merge(result, postId, d[0], d[1]);
+            }
+        }
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (Long postId : postIds) {
+                    long[] d = stripe.deltas.get(postId);
+                    if (d != null) {
+                        merge(result, postId, d[0], d[1]);
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${app.posts.counter-flush-ms:1000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            Map<Long, long[]> drained = drain();
+            if (drained.isEmpty()) {
+                return;
+            }
+            inFlight = drained;
+            List<Object[]> batch = new ArrayList<>(drained.size());
+            drained.forEach((postId, d) -> {
+                if (d[0] != 0 || d[1] != 0) {
+                    batch.add(new Object[]{d[0], d[1], postId});
+                }
+            });
+            try {
+                // One transaction, so a failed batch applies nothing and re-queueing cannot double count
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+                log.debug("Flushed counter deltas for {} posts", batch.size());
+            } catch (RuntimeException e) {
+                log.error("Failed to flush post counters, re-queueing {} deltas", batch.size(), e);
+                drained.forEach((postId, d) -> add(postId, d[0], d[1]));
+            } finally {
+                inFlight = Map.of();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Recomputes like_count / comment_count for every post from post_likes and post_comments.
+     * Pending deltas are flushed first; likes committed while the repair runs may be counted
+     * twice, so this is scheduled off-peak.
+     */
+    public int repair() {
+        flushLock.lock();
+        try {
+            flush();
+            int updated = jdbcTemplate.update(REPAIR_SQL);
+            log.info("Repaired like/comment counters for {} posts", updated);
+            return updated;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${app.posts.counter-repair-cron:0 30 3 * * *}")
+    public void scheduledRepair() {
+        repair();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void repairOnStartup() {
+        if (!startupRepairEnabled) {
+            return;
+        }
+        try {
+            if (!jdbcTemplate.queryForList(UNPOPULATED_SQL, Integer.class).isEmpty()) {
+                log.warn("Post like/comment counters are not populated; recomputing them (apply V5 ahead of deployment)");
+                repair();
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to check post counters on startup", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void add(Long postId, long likeDelta, long commentDelta) {
+        Stripe stripe = stripes[ThreadLocalRandom.current().nextInt(STRIPES)];
+        stripe.lock.lock();
+        try {
+            merge(stripe.deltas, postId, likeDelta, commentDelta);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // Buffers the delta once the surrounding transaction commits; a rollback discards it
+    private void record(Long postId, long likeDelta, long commentDelta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(postId, likeDelta, commentDelta);
+            return;
+        }
+        Map<Long, long[]> uncommitted = uncommitted();
+        if (uncommitted == null) {
+            Map<Long, long[]> deltas = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deltas.forEach((id, d) -> add(id, d[0], d[1]));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PostCounterBuffer.this);
+                }
+            });
+            uncommitted = deltas;
+        }
+        merge(uncommitted, postId, likeDelta, commentDelta);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, long[]> uncommitted() {
+        return (Map<Long, long[]>) TransactionSynchronizationManager.getResource(this);
+    }
+
+    private Map<Long, long[]> drain() {
+        Map<Long, long[]> drained = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            Map<Long, long[]> taken;
+            stripe.lock.lock();
+            try {
+                if (stripe.deltas.isEmpty()) {
+                    continue;
+                }
+                taken = stripe.deltas;
+                stripe.deltas = new HashMap<>();
+            } finally {
+                stripe.lock.unlock();
+            }
+            taken.forEach((postId, d) -> merge(drained, postId, d[0], d[1]));
+        }
+        return drained;
+    }
+
+    private static void merge(Map<Long, long[]> target, Long postId, long likeDelta, long commentDelta) {
+        long[] d = target.computeIfAbsent(postId, id -> new long[2]);
+        d[0] += likeDelta;
+        d[1] += commentDelta;
+    }
+
+    private static Stripe[] createStripes() {
+        Stripe[] result = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            result[i] = new Stripe();
+        }
+        return result;
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private Map<Long, long[]> deltas = new HashMap<>();
+    }
+}
@@ -0,0 +1,81 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.modules.collaboration.dto.PostDTO;
+import com.app.shambabora.modules.collaboration.entity.Post;
+import com.app.shambabora.modules.collaboration.repository.PostLikeRepository;
+import com.app.shambabora.service.UserDirectory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Builds {@link PostDTO}s for a whole page of posts at once.
+ * Like and comment counts come from the denormalized columns on {@link Post} plus any
+ * deltas still waiting in {@link PostCounterBuffer}; "liked by me" flags and authors
+ * (via {@link UserDirectory}) are loaded with one IN (...) query each, so the number of
+ * queries per page stays fixed regardless of page size.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostFeedHydrator {
+
+    private final PostLikeRepository postLikeRepository;
+    private final PostCounterBuffer postCounterBuffer;
+    private final UserDirectory userDirectory;
+
+    public List<PostDTO> hydrate(List<Post> posts, Long currentUserId) {
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> postIds = posts.stream().map(Post::getId).collect(Collectors.toList());
+        Set<Long> authorIds = posts.stream().map(Post::getAuthorId).collect(Collectors.toSet());
+
+        Map<Long, long[]> pending = postCounterBuffer.pending(postIds);
+        Set<Long> likedByMe = currentUserId != null
+                ? new HashSet<>(postLikeRepository.findLikedPostIds(currentUserId, postIds))
+                : Set.of();
+        Map<Long, UserDirectory.UserSummary> authors = userDirectory.resolve(authorIds);
+
+        return posts.stream()
+                .map(post -> PostDTO.builder()
+                        .id(post.getId())
+                        .authorId(post.getAuthorId())
+                        .authorName(authors.get(post.getAuthorId()).getDisplayName())
+                        .authorAvatarUrl(authors.get(post.getAuthorId()).getAvatarUrl())
+                        .groupId(post.getGroupId())
+                        .groupName(getGroupName(post.getGroupId()))
+                        .content(post.getContent())
+                        .imageUrl(post.getImageUrl())
+                        .postType(post.getPostType())
+                        .status(post.getStatus())
+                        .moderatedBy(post.getModeratedBy())
+                        .moderationNotes(post.getModerationNotes())
+                        .likeCount(currentCount(post.getLikeCount(), pending.get(post.getId()), 0))
+                        .commentCount(currentCount(post.getCommentCount(), pending.get(post.getId()), 1))
+                        .isLikedByCurrentUser(likedByMe.contains(post.getId()))
+                        .createdAt(post.getCreatedAt())
+                        .updatedAt(post.getUpdatedAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    public PostDTO hydrate(Post post, Long currentUserId) {
+        return hydrate(List.of(post), currentUserId).get(0);
+    }
+
+    private static int currentCount(long stored, long[] pendingDelta, int index) {
+        long count = stored + (pendingDelta != null ? pendingDelta[index] : 0);
+        return (int) Math.max(count, 0);
+    }
+
+    private String getGroupName(Long groupId) {
+        if (groupId == null) return null;
+        return "Group " + groupId;
+    }
+}
@@ -0,0 +1,203 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.modules.collaboration.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Near-duplicate detection for posts using 64-bit SimHash fingerprints.
+ *
+ * Content is tokenized like the search index and fingerprinted over words and word pairs.
+ * Fingerprints are stored in four tables keyed by one 16-bit band each: two fingerprints within
+ * Hamming distance 3 must agree exactly on at least one band, so a lookup only inspects four
+ * small buckets instead of comparing against history. Entries older than
+ * {@code app.spam.duplicate-window-hours} are dropped.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostFingerprintIndex {
+
+    private static final int BANDS = 4;
+    private static final int BAND_BITS = 16;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final PostRepository postRepository;
+
+    @Value("${app.spam.duplicate-window-hours:24}")
+    private long windowHours;
+
+    @Value("${app.spam.max-hamming-distance:3}")
+    private int maxDistance;
+
+    @Value("${app.spam.min-tokens:8}")
+    private int minTokens;
+
+    @Value("${app.spam.max-bucket-size:64}")
+    private int maxBucketSize;
+
+    @SuppressWarnings("unchecked")
+    private final Map<Integer, ArrayDeque<Entry>>[] bands = new Map[]{
+            new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>()};
+
+    /**
+     * Returns the SimHash of the content, or null when it is too short to fingerprint reliably.
+     */
+    public Long fingerprint(String content) {
+        List<String> tokens = SearchTokenizer.tokenize(content);
+        if (tokens.size() < minTokens) {
+            return null;
+        }
+        int[] weights = new int[64];
+        for (int i = 0; i < tokens.size(); i++) {
+            addFeature(weights, hash(tokens.get(i)));
+            if (i + 1 < tokens.size()) {
+                addFeature(weights, hash(tokens.get(i) + ' ' + tokens.get(i + 1)));
+            }
+        }
+        long simhash = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                simhash |= 1L << bit;
+            }
+        }
+        return simhash;
+    }
+
+    /**
+     * Returns a recent post whose fingerprint is within the configured Hamming distance, or null.
+     */
+    public synchronized Match findNearDuplicate(long fingerprint) {
+        long cutoff = cutoffMillis();
+        Match best = null;
+        for (int band = 0; band < BANDS; band++) {
+            ArrayDeque<Entry> bucket = bands[band].get(bandKey(fingerprint, band));
+            if (bucket == null) {
+                continue;
+            }
+            for (Entry entry : bucket) {
+                if (entry.createdAtMillis < cutoff) {
+                    continue;
+                }
+                int distance = Long.bitCount(entry.fingerprint ^ fingerprint);
+                if (distance <= maxDistance && (best == null || distance < best.distance)) {
+                    best = new Match(entry.postId, entry.groupId, distance);
+                }
+            }
+        }
+        return best;
+    }
+
+    public synchronized void record(long fingerprint, Long postId, Long groupId, Instant createdAt) {
+        Entry entry = new Entry(postId, groupId, fingerprint, createdAt != null ? createdAt.toEpochMilli() : System.currentTimeMillis());
+        for (int band = 0; band < BANDS; band++) {
+            ArrayDeque<Entry> bucket = bands[band].computeIfAbsent(bandKey(fingerprint, band), k -> new ArrayDeque<>());
+            bucket.addLast(entry);
+            // Very common bands (e.g. templated announcements) keep only their newest entries
+            if (bucket.size() > maxBucketSize) {
+                bucket.pollFirst();
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Instant since = Instant.now().minus(windowHours, ChronoUnit.HOURS);
+        int recorded = 0;
+        for (Object[] row : postRepository.findFingerprintRowsSince(since)) {
+            Long fingerprint = fingerprint((String) row[2]);
+            if (fingerprint != null) {
+                record(fingerprint, (Long) row[0], (Long) row[1], (Instant) row[3]);
+                recorded++;
+            }
+        }
+        log.info("Loaded {} post fingerprints from the last {} hours", recorded, windowHours);
+    }
+
+    @Scheduled(fixedDelayString = "${app.spam.sweep-ms:600000}")
+    public synchronized void evictExpired() {
+        long cutoff = cutoffMillis();
+        for (Map<Integer, ArrayDeque<Entry>> band : bands) {
+            Iterator<ArrayDeque<Entry>> buckets = band.values().iterator();
+            while (buckets.hasNext()) {
+                ArrayDeque<Entry> bucket = buckets.next();
+                // Entries are appended in creation order, so expired ones are at the head
+                while (!bucket.isEmpty() && bucket.peekFirst().createdAtMillis < cutoff) {
+                    bucket.pollFirst();
+                }
+                if (bucket.isEmpty()) {
+                    buckets.remove();
+                }
+            }
+        }
+    }
+
+    private long cutoffMillis() {
+        return System.currentTimeMillis() - windowHours * 3_600_000L;
+    }
+
+    private static int bandKey(long fingerprint, int band) {
+        return (int) ((fingerprint >>> (band * BAND_BITS)) & 0xFFFF);
+    }
+
+    private static void addFeature(int[] weights, long featureHash) {
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += ((featureHash >>> bit) & 1L) != 0 ? 1 : -1;
+        }
+    }
+
+    // 64-bit FNV-1a
+    private static long hash(String feature) {
+        long h = FNV_OFFSET;
+        for (byte b : feature.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= FNV_PRIME;
+        }
+        return h;
+    }
+
+    public static final class Match {
+        private final Long postId;
+        private final Long groupId;
+        private final int distance;
+
+        Match(Long postId, Long groupId, int distance) {
+            this.postId = postId;
+            this.groupId = groupId;
+            this.distance = distance;
+        }
+
+        public Long getPostId() { return postId; }
+        public Long getGroupId() { return groupId; }
+        public int getDistance() { return distance; }
+    }
+
+    private static final class Entry {
+        private final Long postId;
+        private final Long groupId;
+        private final long fingerprint;
+        private final long createdAtMillis;
+
+        Entry(Long postId, Long groupId, long fingerprint, long createdAtMillis) {
+            this.postId = postId;
+            this.groupId = groupId;
+            this.fingerprint = fingerprint;
+            this.createdAtMillis = createdAtMillis;
+        }
+    }
+}
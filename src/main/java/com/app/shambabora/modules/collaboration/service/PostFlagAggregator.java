@@ -0,0 +1,209 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Aggregates user flags on posts.
+ *
+ * Each flagged post gets a ring of time buckets covering {@code app.flags.window-minutes}; a
+ * bucket holds the ids of users who flagged in that slice, and a per-user reference count gives
+ * the number of distinct flaggers in the window in O(1). Flags are persisted by a background
+ * flusher as one batched {@code INSERT IGNORE}, so a burst of clicks on one post costs memory
+ * operations only. {@link #record} reports when a post first crosses the hide threshold.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostFlagAggregator {
+
+    private static final int BUCKETS = 12;
+
+    private static final String INSERT_SQL =
+            "INSERT IGNORE INTO post_flags (post_id, user_id, reason, created_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.flags.window-minutes:60}")
+    private long windowMinutes;
+
+    @Value("${app.flags.hide-threshold:5}")
+    private int hideThreshold;
+
+    private final ConcurrentHashMap<Long, FlagWindow> windows = new ConcurrentHashMap<>();
+
+    private final ConcurrentLinkedQueue<PendingFlag> pending = new ConcurrentLinkedQueue<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * Records a flag and returns true exactly once per window, when the number of distinct
+     * users flagging the post reaches the hide threshold.
+     */
+    public boolean record(Long postId, Long userId, String reason) {
+        long now = System.currentTimeMillis();
+        pending.add(new PendingFlag(postId, userId, reason, now));
+        long bucket = now / bucketMillis();
+        boolean[] crossed = new boolean[1];
+        // Updated inside compute so a concurrent idle sweep cannot drop the window mid-update
+        windows.compute(postId, (id, window) -> {
+            FlagWindow w = window != null ? window : new FlagWindow();
+            crossed[0] = w.add(userId, bucket, hideThreshold);
+            return w;
+        });
+        return crossed[0];
+    }
+
+    /**
+     * Number of distinct users who flagged the post inside the current window.
+     */
+    public int distinctFlaggers(Long postId) {
+        FlagWindow window = windows.get(postId);
+        return window == null ? 0 : window.distinct(System.currentTimeMillis() / bucketMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${app.flags.flush-ms:2000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            // Repeated flags by the same user collapse to one row
+            Map<String, Object[]> rows = new HashMap<>();
+            PendingFlag flag;
+            while ((flag = pending.poll()) != null) {
+                String reason = flag.reason != null && flag.reason.length() > 500 ? flag.reason.substring(0, 500) : flag.reason;
+                rows.putIfAbsent(flag.postId + ":" + flag.userId,
+                        new Object[]{flag.postId, flag.userId, reason, Timestamp.from(Instant.ofEpochMilli(flag.createdAtMillis))});
+            }
+            if (rows.isEmpty()) {
+                return;
+            }
+            List<Object[]> batch = new ArrayList<>(rows.values());
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                log.debug("Persisted {} post flags", batch.size());
+            } catch (RuntimeException e) {
+                log.error("Failed to persist {} post flags, re-queueing", batch.size(), e);
+                for (Object[] row : batch) {
+                    pending.add(new PendingFlag((Long) row[0], (Long) row[1], (String) row[2], ((Timestamp) row[3]).getTime()));
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.flags.sweep-ms:300000}")
+    public void evictIdleWindows() {
+        long currentBucket = System.currentTimeMillis() / bucketMillis();
+        for (Long postId : windows.keySet()) {
+            windows.computeIfPresent(postId, (id, window) -> window.isIdle(currentBucket) ? null : window);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private long bucketMillis() {
+        return Math.max(1, windowMinutes * 60_000L / BUCKETS);
+    }
+
+    /**
+     * Ring of {@link #BUCKETS} user-id sets for one post.
+     */
+    private static final class FlagWindow {
+        private final long[] bucketEpochs = new long[BUCKETS];
+        @SuppressWarnings("unchecked")
+        private final Set<Long>[] buckets = new Set[BUCKETS];
+        // userId -> number of live buckets containing that user
+        private final Map<Long, Integer> userRefs = new HashMap<>();
+        private long lastBucket;
+        private boolean thresholdReached;
+
+        FlagWindow() {
+            Arrays.fill(bucketEpochs, Long.MIN_VALUE);
+        }
+
+        synchronized boolean add(Long userId, long bucket, int threshold) {
+            advance(bucket);
+            int slot = (int) Math.floorMod(bucket, (long) BUCKETS);
+            if (bucketEpochs[slot] != bucket) {
+                bucketEpochs[slot] = bucket;
+                buckets[slot] = new HashSet<>();
+            }
+            if (buckets[slot].add(userId)) {
+                userRefs.merge(userId, 1, Integer::sum);
+            }
+            if (!thresholdReached && userRefs.size() >= threshold) {
+                thresholdReached = true;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized int distinct(long bucket) {
+            advance(bucket);
+            return userRefs.size();
+        }
+
+        synchronized boolean isIdle(long bucket) {
+            advance(bucket);
+            return userRefs.isEmpty();
+        }
+
+        // Expires buckets that fell out of the window
+        private void advance(long bucket) {
+            if (bucket <= lastBucket) {
+                return;
+            }
+            lastBucket = bucket;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (buckets[i] != null && bucketEpochs[i] <= bucket - BUCKETS) {
+                    for (Long userId : buckets[i]) {
+                        userRefs.computeIfPresent(userId, (id, refs) -> refs > 1 ? refs - 1 : null);
+                    }
+                    buckets[i] = null;
+                }
+            }
+            if (userRefs.isEmpty()) {
+                // Window drained; a later wave of flags may trigger hiding again
+                thresholdReached = false;
+            }
+        }
+    }
+
+    private static final class PendingFlag {
+        private final Long postId;
+        private final Long userId;
+        private final String reason;
+        private final long createdAtMillis;
+
+        PendingFlag(Long postId, Long userId, String reason, long createdAtMillis) {
+            this.postId = postId;
+            this.userId = userId;
+            this.reason = reason;
+            this.createdAtMillis = createdAtMillis;
+        }
+    }
+}
@@ -1,21 +1,37 @@
 package com.app.shambabora.modules.collaboration.service;
 
 import com.app.shambabora.common.api.ApiResponse;
+import com.app.shambabora.common.api.CursorPageResponse;
+import com.app.shambabora.common.api.PageCursor;
 import com.app.shambabora.common.api.PageResponse;
 import com.app.shambabora.common.exception.BadRequestException;
 import com.app.shambabora.common.exception.NotFoundException;
-import com.app.shambabora.entity.User;
+import com.app.shambabora.modules.collaboration.dto.BulkModerationRequestDTO;
+import com.app.shambabora.modules.collaboration.dto.BulkModerationResultDTO;
+import com.app.shambabora.modules.collaboration.dto.CommentThreadDTO;
+import com.app.shambabora.modules.collaboration.dto.ModerationLeaseDTO;
 import com.app.shambabora.modules.collaboration.dto.PostCommentDTO;
 import com.app.shambabora.modules.collaboration.dto.PostDTO;
+import com.app.shambabora.modules.collaboration.dto.PostFlagDTO;
 import com.app.shambabora.modules.collaboration.entity.Post;
 import com.app.shambabora.modules.collaboration.entity.PostComment;
+import com.app.shambabora.modules.collaboration.entity.PostFlag;
+import com.app.shambabora.modules.collaboration.entity.GroupMembership;
 import com.app.shambabora.modules.collaboration.entity.PostLike;
+import com.app.shambabora.modules.collaboration.event.ModerationBatchEvent;
+import com.app.shambabora.modules.collaboration.event.PostCommentedEvent;
+import com.app.shambabora.modules.collaboration.event.PostCreatedEvent;
+import com.app.shambabora.modules.collaboration.event.PostLikedEvent;
+import com.app.shambabora.modules.collaboration.repository.GroupMembershipRepository;
 import com.app.shambabora.modules.collaboration.repository.PostCommentRepository;
+import com.app.shambabora.modules.collaboration.repository.PostFlagRepository;
 import com.app.shambabora.modules.collaboration.repository.PostLikeRepository;
 import com.app.shambabora.modules.collaboration.repository.PostRepository;
-import com.app.shambabora.repository.UserRepository;
+import com.app.shambabora.service.UserDirectory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
@@ -24,8 +40,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,63 +55,211 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PostService {
     
+    private static final Comparator<Post> NEWEST_FIRST =
+            Comparator.comparing(Post::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(Post::getId, Comparator.reverseOrder());
+    
     private final PostRepository postRepository;
     private final PostLikeRepository postLikeRepository;
     private final PostCommentRepository postCommentRepository;
-    private final UserRepository userRepository;
-    private final Optional<NotificationService> notificationService;
+    private final UserDirectory userDirectory;
+    private final PostFeedHydrator postFeedHydrator;
+    private final PostCounterBuffer postCounterBuffer;
+    private final HomeTimelineStore homeTimelineStore;
+    private final FeedSizeCache feedSizeCache;
+    private final TrendingPostScorer trendingPostScorer;
+    private final ContentSearchIndex contentSearchIndex;
+    private final CommentThreadAssembler commentThreadAssembler;
+    private final ModerationDispatcher moderationDispatcher;
+    private final ContentPreScreener contentPreScreener;
+    private final PostFingerprintIndex postFingerprintIndex;
+    private final PostFlagAggregator postFlagAggregator;
+    private final PostFlagRepository postFlagRepository;
+    private final ModerationStatsProvider moderationStatsProvider;
+    private final GroupMembershipRepository groupMembershipRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.moderation.bulk-max-items:500}")
+    private int bulkMaxItems;
     
     @Transactional
     public ApiResponse<PostDTO> createPost(PostDTO postDTO, Long authorId) {
         log.info("Creating post for author: {}", authorId);
         
+        // Clean posts skip the human queue; posts matching a moderation term wait for review
+        List<String> screenHits = contentPreScreener.isEnabled() ? contentPreScreener.screen(postDTO.getContent()) : null;
+        
+        // Near-copies of a recent post (typically the same ad pasted into several groups) are flagged for review
+        Long fingerprint = postFingerprintIndex.fingerprint(postDTO.getContent());
+        PostFingerprintIndex.Match duplicate = fingerprint != null ? postFingerprintIndex.findNearDuplicate(fingerprint) : null;
+        boolean autoApproved = screenHits != null && screenHits.isEmpty() && duplicate == null;
+        
+        String notes = screenNotes(screenHits);
+        if (duplicate != null) {
+            String duplicateNote = "Near-duplicate of post " + duplicate.getPostId()
+                    + (duplicate.getGroupId() != null ? " in group " + duplicate.getGroupId() : "");
+            notes = notes != null ? duplicateNote + "; " + notes : duplicateNote;
+            notes = notes.length() > 500 ? notes.substring(0, 497) + "..." : notes;
+        }
+        
         Post post = Post.builder()
                 .authorId(authorId)
                 .groupId(postDTO.getGroupId())
                 .content(postDTO.getContent())
                 .imageUrl(postDTO.getImageUrl())
                 .postType(postDTO.getPostType())
-                .status(Post.PostStatus.PENDING_MODERATION)
+                .status(autoApproved ? Post.PostStatus.APPROVED : Post.PostStatus.PENDING_MODERATION)
+                .moderationNotes(notes)
                 .build();
         
         Post savedPost = postRepository.save(post);
-        log.info("Post created with ID: {}", savedPost.getId());
+        log.info("Post created with ID: {} and status: {}", savedPost.getId(), savedPost.getStatus());
+        moderationStatsProvider.postCreated(savedPost.getStatus());
+        
+        if (fingerprint != null) {
+            postFingerprintIndex.record(fingerprint, savedPost.getId(), savedPost.getGroupId(), savedPost.getCreatedAt());
+        }
+        homeTimelineStore.fanOut(savedPost);
+        contentSearchIndex.indexPost(savedPost);
+        if (duplicate != null) {
+            log.info("Post {} is a near-duplicate of post {} (distance {})", savedPost.getId(), duplicate.getPostId(), duplicate.getDistance());
+            moderationDispatcher.flag(ModerationDispatcher.ItemType.POST, savedPost.getId(), savedPost.getCreatedAt());
+        } else if (!autoApproved) {
+            moderationDispatcher.enqueue(ModerationDispatcher.ItemType.POST, savedPost.getId(), savedPost.getCreatedAt());
+        }
         
-        // Notify about new post (if websockets enabled)
-        notificationService.ifPresent(ns -> ns.notifyNewPost(mapToDTO(savedPost, authorId)));
+        // Notify about new post once committed (if websockets enabled)
+        PostDTO createdDTO = mapToDTO(savedPost, authorId);
+        eventPublisher.publishEvent(new PostCreatedEvent(createdDTO));
         
-        return ApiResponse.ok("Post created successfully", mapToDTO(savedPost, authorId));
+        return ApiResponse.ok("Post created successfully", createdDTO);
     }
     
     public ApiResponse<PageResponse<PostDTO>> getFeed(Long userId, Pageable pageable) {
         log.info("Getting feed for user: {}", userId);
         
-        // Get user's groups
+        // Split the user's groups: small groups are fanned out into the home timeline on write,
+        // large groups and general posts are read at request time
         List<Long> userGroupIds = getUserGroupIds(userId);
+        List<Long> fanOutGroupIds = new ArrayList<>();
+        List<Long> largeGroupIds = new ArrayList<>();
+        for (Long groupId : userGroupIds) {
+            (homeTimelineStore.isLargeGroup(groupId) ? largeGroupIds : fanOutGroupIds).add(groupId);
+        }
         
-        Pageable sortedPageable = PageRequest.of(
-                pageable.getPageNumber(),
-                pageable.getPageSize(),
-                Sort.by(Sort.Direction.DESC, "createdAt")
-        );
+        int offset = pageable.getPageNumber() * pageable.getPageSize();
+        int window = offset + pageable.getPageSize();
         
-        Page<Post> posts = postRepository.findFeedAllVisible(userGroupIds, sortedPageable);
+        List<Post> timelinePosts = readTimelineBefore(userId, fanOutGroupIds, null, window);
         
-        List<PostDTO> postDTOs = posts.getContent().stream()
-                .map(post -> mapToDTO(post, userId))
-                .collect(Collectors.toList());
+        List<Post> pulled = readPulledBefore(largeGroupIds, null, null, window);
         
+        Set<Long> timelinePostIds = timelinePosts.stream().map(Post::getId).collect(Collectors.toSet());
+        List<Post> merged = new ArrayList<>(timelinePosts);
+        pulled.stream()
+                .filter(post -> !timelinePostIds.contains(post.getId()))
+                .forEach(merged::add);
+        merged.sort(NEWEST_FIRST);
+        List<Post> pagePosts = offset < merged.size()
+                ? merged.subList(offset, Math.min(window, merged.size()))
+                : List.of();
+        
+        List<PostDTO> postDTOs = postFeedHydrator.hydrate(pagePosts, userId);
+        
+        // Both sources together cover every visible post in the user's groups plus general posts
+        long totalElements = feedSizeCache.feedSize(userGroupIds);
         PageResponse<PostDTO> pageResponse = PageResponse.<PostDTO>builder()
                 .content(postDTOs)
-                .page(posts.getNumber())
-                .size(posts.getSize())
-                .totalElements(posts.getTotalElements())
-                .totalPages(posts.getTotalPages())
+                .page(pageable.getPageNumber())
+                .size(pageable.getPageSize())
+                .totalElements(totalElements)
+                .totalPages((int) Math.ceil((double) totalElements / pageable.getPageSize()))
                 .build();
         
         return ApiResponse.ok("Feed retrieved successfully", pageResponse);
     }
     
+    public ApiResponse<CursorPageResponse<PostDTO>> getFeedByCursor(Long userId, String cursorToken, int size) {
+        log.info("Getting cursor feed for user: {}", userId);
+        
+        PageCursor cursor = PageCursor.decode(cursorToken);
+        int limit = CursorPageResponse.clampSize(size);
+        Instant createdAt = cursor != null ? cursor.getCreatedAt() : null;
+        Long id = cursor != null ? cursor.getId() : null;
+        
+        List<Long> fanOutGroupIds = new ArrayList<>();
+        List<Long> largeGroupIds = new ArrayList<>();
+        for (Long groupId : getUserGroupIds(userId)) {
+            (homeTimelineStore.isLargeGroup(groupId) ? largeGroupIds : fanOutGroupIds).add(groupId);
+        }
+        
+        List<Post> fromTimeline = readTimelineBefore(userId, fanOutGroupIds, cursor, limit + 1);
+        List<Post> pulled = readPulledBefore(largeGroupIds, createdAt, id, limit + 1);
+        
+        Set<Long> timelinePostIds = fromTimeline.stream().map(Post::getId).collect(Collectors.toSet());
+        List<Post> merged = new ArrayList<>(fromTimeline);
+        pulled.stream()
+                .filter(post -> !timelinePostIds.contains(post.getId()))
+                .forEach(merged::add);
+        merged.sort(NEWEST_FIRST);
+        List<Post> rows = merged.size() > limit + 1 ? merged.subList(0, limit + 1) : merged;
+        
+        return ApiResponse.ok("Feed retrieved successfully",
+                CursorPageResponse.of(rows, limit, Post::getCreatedAt, Post::getId, posts -> postFeedHydrator.hydrate(posts, userId)));
+    }
+    
+    /**
+     * Reads up to {@code limit} visible posts older than the cursor from the user's fan-out
+     * groups, newest first. The whole materialized timeline is ranked by (createdAt, id) with
+     * one projection query, so hidden or deleted entries never shorten the page; once the
+     * timeline is exhausted and may have dropped older posts, the rest comes from a keyset query.
+     */
+    private List<Post> readTimelineBefore(Long userId, List<Long> fanOutGroupIds, PageCursor cursor, int limit) {
+        if (fanOutGroupIds.isEmpty()) {
+            return List.of();
+        }
+        int capacity = homeTimelineStore.getCapacity();
+        List<Long> timelineIds = homeTimelineStore.read(userId, capacity, () ->
+                postRepository.findVisibleIdsByGroupIdIn(fanOutGroupIds, PageRequest.of(0, capacity)));
+        
+        // Timeline order is push order, which differs from creation order for posts approved late
+        List<Object[]> ranked = timelineIds.isEmpty() ? List.of() : postRepository.findVisibleIdAndCreatedAtByIdIn(timelineIds);
+        List<Long> candidateIds = ranked.stream()
+                .filter(row -> cursor == null || isBefore((Instant) row[1], (Long) row[0], cursor))
+                .sorted(Comparator.comparing((Object[] row) -> (Instant) row[1], Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(row -> (Long) row[0], Comparator.reverseOrder()))
+                .limit(limit)
+                .map(row -> (Long) row[0])
+                .collect(Collectors.toList());
+        List<Post> posts = new ArrayList<>(postRepository.findAllById(candidateIds));
+        posts.sort(NEWEST_FIRST);
+        
+        if (posts.size() < limit && timelineIds.size() >= capacity) {
+            Post last = posts.isEmpty() ? null : posts.get(posts.size() - 1);
+            Instant createdAt = last != null ? last.getCreatedAt() : cursor != null ? cursor.getCreatedAt() : null;
+            Long id = last != null ? last.getId() : cursor != null ? cursor.getId() : null;
+            Set<Long> seen = posts.stream().map(Post::getId).collect(Collectors.toSet());
+            postRepository.findGroupsVisibleBefore(fanOutGroupIds, createdAt, id, PageRequest.of(0, limit - posts.size())).stream()
+                    .filter(post -> seen.add(post.getId()))
+                    .forEach(posts::add);
+        }
+        return posts;
+    }
+    
+    /**
+     * Reads up to {@code limit} visible posts older than (createdAt, id) from general posts and
+     * the large groups that are not fanned out, newest first. Each source is its own keyset
+     * range, so neither query has to merge an OR across group_id values.
+     */
+    private List<Post> readPulledBefore(List<Long> largeGroupIds, Instant createdAt, Long id, int limit) {
+        List<Post> pulled = new ArrayList<>(postRepository.findGeneralVisibleBefore(createdAt, id, PageRequest.of(0, limit)));
+        if (!largeGroupIds.isEmpty()) {
+            pulled.addAll(postRepository.findGroupsVisibleBefore(largeGroupIds, createdAt, id, PageRequest.of(0, limit)));
+            pulled.sort(NEWEST_FIRST);
+        }
+        return pulled.size() > limit ? pulled.subList(0, limit) : pulled;
+    }
+    
     public ApiResponse<PageResponse<PostDTO>> getGroupPosts(Long groupId, Long userId, Pageable pageable) {
         log.info("Getting posts for group: {} by user: {}", groupId, userId);
         
@@ -101,9 +271,7 @@ public class PostService {
         
         Page<Post> posts = postRepository.findGroupAllVisible(groupId, sortedPageable);
         
-        List<PostDTO> postDTOs = posts.getContent().stream()
-                .map(post -> mapToDTO(post, userId))
-                .collect(Collectors.toList());
+        List<PostDTO> postDTOs = postFeedHydrator.hydrate(posts.getContent(), userId);
         
         PageResponse<PostDTO> pageResponse = PageResponse.<PostDTO>builder()
                 .content(postDTOs)
@@ -116,6 +284,62 @@ public class PostService {
         return ApiResponse.ok("Group posts retrieved successfully", pageResponse);
     }
     
+    public ApiResponse<CursorPageResponse<PostDTO>> getGroupPostsByCursor(Long groupId, Long userId, String cursorToken, int size) {
+        log.info("Getting cursor posts for group: {} by user: {}", groupId, userId);
+        
+        PageCursor cursor = PageCursor.decode(cursorToken);
+        int limit = CursorPageResponse.clampSize(size);
+        List<Post> rows = postRepository.findGroupVisibleBefore(groupId,
+                cursor != null ? cursor.getCreatedAt() : null, cursor != null ? cursor.getId() : null,
+                PageRequest.of(0, limit + 1));
+        
+        return ApiResponse.ok("Group posts retrieved successfully",
+                CursorPageResponse.of(rows, limit, Post::getCreatedAt, Post::getId, posts -> postFeedHydrator.hydrate(posts, userId)));
+    }
+    
+    public ApiResponse<List<PostDTO>> getTrendingPosts(Long groupId, Long userId, int limit) {
+        log.info("Getting trending posts for group: {}", groupId);
+        
+        List<Long> rankedIds = trendingPostScorer.topPostIds(groupId, Math.max(1, Math.min(limit, 100)));
+        Map<Long, Post> postsById = postRepository.findAllById(rankedIds).stream()
+                .filter(PostService::isVisible)
+                .collect(Collectors.toMap(Post::getId, post -> post));
+        List<Post> ranked = rankedIds.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        
+        return ApiResponse.ok("Trending posts retrieved successfully", postFeedHydrator.hydrate(ranked, userId));
+    }
+    
+    public ApiResponse<List<PostDTO>> searchPosts(String query, Long groupId, Long userId, int limit) {
+        log.info("Searching posts for '{}' in group: {}", query, groupId);
+        
+        List<Long> rankedIds = contentSearchIndex.searchPosts(query, groupId, Math.min(limit, 100));
+        Map<Long, Post> postsById = postRepository.findAllById(rankedIds).stream()
+                .collect(Collectors.toMap(Post::getId, post -> post));
+        List<Post> ranked = rankedIds.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        
+        return ApiResponse.ok("Posts retrieved successfully", postFeedHydrator.hydrate(ranked, userId));
+    }
+    
+    public ApiResponse<List<PostCommentDTO>> searchComments(String query, Long groupId, int limit) {
+        log.info("Searching comments for '{}' in group: {}", query, groupId);
+        
+        List<Long> rankedIds = contentSearchIndex.searchComments(query, groupId, Math.min(limit, 100));
+        Map<Long, PostComment> commentsById = postCommentRepository.findAllById(rankedIds).stream()
+                .collect(Collectors.toMap(PostComment::getId, comment -> comment));
+        List<PostCommentDTO> ranked = mapCommentsToDTOs(rankedIds.stream()
+                .map(commentsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+        
+        return ApiResponse.ok("Comments retrieved successfully", ranked);
+    }
+    
     @Transactional
     public ApiResponse<PostDTO> likePost(Long postId, Long userId) {
         log.info("User {} liking post {}", userId, postId);
@@ -133,10 +357,12 @@ public class PostService {
                 .build();
         
         postLikeRepository.save(like);
+        postCounterBuffer.recordLike(postId, 1);
+        trendingPostScorer.onLike(postId, post.getGroupId(), 1);
         log.info("Post {} liked by user {}", postId, userId);
         
-        // Notify about like (if websockets enabled)
-        notificationService.ifPresent(ns -> ns.notifyPostLike(postId, userId, "like"));
+        // Notify about like once committed (if websockets enabled)
+        eventPublisher.publishEvent(new PostLikedEvent(postId, userId, "like"));
         
         return ApiResponse.ok("Post liked successfully", mapToDTO(post, userId));
     }
@@ -149,13 +375,15 @@ public class PostService {
                 .orElseThrow(() -> new NotFoundException("Like not found"));
         
         postLikeRepository.delete(like);
+        postCounterBuffer.recordLike(postId, -1);
         log.info("Post {} unliked by user {}", postId, userId);
         
-        // Notify about unlike (if websockets enabled)
-        notificationService.ifPresent(ns -> ns.notifyPostLike(postId, userId, "unlike"));
+        // Notify about unlike once committed (if websockets enabled)
+        eventPublisher.publishEvent(new PostLikedEvent(postId, userId, "unlike"));
         
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new NotFoundException("Post not found"));
+        trendingPostScorer.onLike(postId, post.getGroupId(), -1);
         
         return ApiResponse.ok("Post unliked successfully", mapToDTO(post, userId));
     }
@@ -167,19 +395,32 @@ public class PostService {
         Post post = postRepository.findById(commentDTO.getPostId())
                 .orElseThrow(() -> new NotFoundException("Post not found"));
         
+        // Comments go live immediately unless they match a moderation term
+        List<String> screenHits = contentPreScreener.isEnabled() ? contentPreScreener.screen(commentDTO.getContent()) : List.of();
+        boolean held = !screenHits.isEmpty();
+        
         PostComment comment = PostComment.builder()
                 .post(post)
                 .authorId(authorId)
                 .content(commentDTO.getContent())
                 .parentCommentId(commentDTO.getParentCommentId())
-                .status(PostComment.CommentStatus.ACTIVE)  // Changed from PENDING_MODERATION to ACTIVE
+                .status(held ? PostComment.CommentStatus.PENDING_MODERATION : PostComment.CommentStatus.ACTIVE)
+                .moderationNotes(screenNotes(screenHits))
                 .build();
         
         PostComment savedComment = postCommentRepository.save(comment);
+        contentSearchIndex.indexComment(savedComment, post.getGroupId());
         log.info("Comment created with ID: {} and status: {}", savedComment.getId(), savedComment.getStatus());
+        moderationStatsProvider.commentCreated(savedComment.getStatus());
         
-        // Notify about comment (if websockets enabled)
-        notificationService.ifPresent(ns -> ns.notifyPostComment(commentDTO.getPostId(), authorId, commentDTO.getContent()));
+        if (held) {
+            moderationDispatcher.enqueue(ModerationDispatcher.ItemType.COMMENT, savedComment.getId(), savedComment.getCreatedAt());
+        } else {
+            postCounterBuffer.recordComment(post.getId(), 1);
+            trendingPostScorer.onComment(post.getId(), post.getGroupId());
+            // Notify about comment once committed (if websockets enabled)
+            eventPublisher.publishEvent(new PostCommentedEvent(commentDTO.getPostId(), authorId, commentDTO.getContent()));
+        }
         
         return ApiResponse.ok("Comment added successfully", mapCommentToDTO(savedComment));
     }
@@ -217,9 +458,7 @@ public class PostService {
         Page<PostComment> comments = postCommentRepository.findByPostIdAndStatus(
                 postId, PostComment.CommentStatus.ACTIVE, sortedPageable);
         
-        List<PostCommentDTO> commentDTOs = comments.getContent().stream()
-                .map(this::mapCommentToDTO)
-                .collect(Collectors.toList());
+        List<PostCommentDTO> commentDTOs = mapCommentsToDTOs(comments.getContent());
         
         PageResponse<PostCommentDTO> pageResponse = PageResponse.<PostCommentDTO>builder()
                 .content(commentDTOs)
@@ -232,6 +471,33 @@ public class PostService {
         return ApiResponse.ok("Comments retrieved successfully", pageResponse);
     }
     
+    public ApiResponse<PageResponse<CommentThreadDTO>> getCommentThreads(Long postId, Pageable pageable) {
+        log.info("Getting comment threads for post: {}", postId);
+        
+        if (!postRepository.existsById(postId)) {
+            throw new NotFoundException("Post not found");
+        }
+        List<PostComment> comments = postCommentRepository.findByPostIdAndStatusOrderByCreatedAtAscIdAsc(
+                postId, PostComment.CommentStatus.ACTIVE);
+        
+        return ApiResponse.ok("Comment threads retrieved successfully",
+                commentThreadAssembler.assemble(comments, pageable.getPageNumber(), pageable.getPageSize()));
+    }
+    
+    public ApiResponse<CursorPageResponse<PostCommentDTO>> getPostCommentsByCursor(Long postId, String cursorToken, int size) {
+        log.info("Getting cursor comments for post: {}", postId);
+        
+        PageCursor cursor = PageCursor.decode(cursorToken);
+        int limit = CursorPageResponse.clampSize(size);
+        List<PostComment> rows = postCommentRepository.findByPostIdAndStatusAfter(postId, PostComment.CommentStatus.ACTIVE,
+                cursor != null ? cursor.getCreatedAt() : null, cursor != null ? cursor.getId() : null,
+                PageRequest.of(0, limit + 1));
+        
+        return ApiResponse.ok("Comments retrieved successfully",
+                CursorPageResponse.of(rows, limit, PostComment::getCreatedAt, PostComment::getId,
+                        this::mapCommentsToDTOs));
+    }
+    
     // Admin/Moderator methods
     @Transactional
     public ApiResponse<PostDTO> moderatePost(Long postId, Post.PostStatus status, Long moderatorId, String notes) {
@@ -240,6 +506,7 @@ public class PostService {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new NotFoundException("Post not found"));
         
+        moderationStatsProvider.postStatusChanged(post.getStatus(), status);
         post.setStatus(status);
         post.setModeratedBy(moderatorId);
         post.setModerationNotes(notes);
@@ -247,18 +514,195 @@ public class PostService {
         Post savedPost = postRepository.save(post);
         log.info("Post {} moderated to status {}", postId, status);
         
+        if (status == Post.PostStatus.APPROVED) {
+            homeTimelineStore.fanOut(savedPost);
+        }
+        if (!isVisible(savedPost)) {
+            trendingPostScorer.remove(postId);
+        }
+        contentSearchIndex.updatePostStatus(postId, status);
+        if (status == Post.PostStatus.PENDING_MODERATION) {
+            moderationDispatcher.enqueue(ModerationDispatcher.ItemType.POST, postId, savedPost.getCreatedAt());
+        } else {
+            moderationDispatcher.complete(ModerationDispatcher.ItemType.POST, postId);
+        }
+        
         return ApiResponse.ok("Post moderated successfully", mapToDTO(savedPost, moderatorId));
     }
     
+    /**
+     * Moderates many posts and comments at once. Items already in the target status are
+     * reported as UNCHANGED and left untouched; the rest are updated with one set-based
+     * UPDATE per table, and a single batch notification is sent for the whole request.
+     */
+    @Transactional
+    public ApiResponse<BulkModerationResultDTO> bulkModerate(BulkModerationRequestDTO request, Long moderatorId) {
+        Collection<Long> postIds = request.getPostIds() != null ? new LinkedHashSet<>(request.getPostIds()) : List.of();
+        Collection<Long> commentIds = request.getCommentIds() != null ? new LinkedHashSet<>(request.getCommentIds()) : List.of();
+        if (postIds.isEmpty() && commentIds.isEmpty()) {
+            throw new BadRequestException("No post or comment ids provided");
+        }
+        if (postIds.size() + commentIds.size() > bulkMaxItems) {
+            throw new BadRequestException("At most " + bulkMaxItems + " items can be moderated at once");
+        }
+        Post.PostStatus postStatus;
+        PostComment.CommentStatus commentStatus;
+        try {
+            postStatus = Post.PostStatus.valueOf(String.valueOf(request.getStatus()));
+            commentStatus = PostComment.CommentStatus.valueOf(String.valueOf(request.getStatus()));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid moderation status: " + request.getStatus());
+        }
+        log.info("Bulk moderating {} posts and {} comments to status {} by moderator {}",
+                postIds.size(), commentIds.size(), postStatus, moderatorId);
+        
+        Instant now = Instant.now();
+        String notes = request.getModerationNotes();
+        BulkModerationResultDTO result = BulkModerationResultDTO.builder().status(postStatus.name()).build();
+        
+        List<Post> changedPosts = new ArrayList<>();
+        if (!postIds.isEmpty()) {
+            Map<Long, Post> postsById = postRepository.findAllById(postIds).stream()
+                    .collect(Collectors.toMap(Post::getId, post -> post));
+            for (Long id : postIds) {
+                Post post = postsById.get(id);
+                if (post == null) {
+                    result.getPosts().add(new BulkModerationResultDTO.ItemOutcome(id, BulkModerationResultDTO.Outcome.NOT_FOUND, null));
+                } else if (post.getStatus() == postStatus) {
+                    result.getPosts().add(new BulkModerationResultDTO.ItemOutcome(id, BulkModerationResultDTO.Outcome.UNCHANGED, post.getStatus().name()));
+                } else {
+                    result.getPosts().add(new BulkModerationResultDTO.ItemOutcome(id, BulkModerationResultDTO.Outcome.UPDATED, post.getStatus().name()));
+                    changedPosts.add(post);
+                    moderationStatsProvider.postStatusChanged(post.getStatus(), postStatus);
+                }
+            }
+            if (!changedPosts.isEmpty()) {
+                List<Long> changedIds = changedPosts.stream().map(Post::getId).collect(Collectors.toList());
+                result.setUpdatedPosts(postRepository.updateModeration(changedIds, postStatus, moderatorId, notes, now));
+            }
+        }
+        
+        List<Long> changedCommentIds = new ArrayList<>();
+        if (!commentIds.isEmpty()) {
+            // Each row is [id, status, postId, groupId]
+            Map<Long, Object[]> rowsById = postCommentRepository.findModerationRows(commentIds).stream()
+                    .collect(Collectors.toMap(row -> (Long) row[0], row -> row));
+            List<Object[]> changedRows = new ArrayList<>();
+            for (Long id : commentIds) {
+                Object[] row = rowsById.get(id);
+                if (row == null) {
+                    result.getComments().add(new BulkModerationResultDTO.ItemOutcome(id, BulkModerationResultDTO.Outcome.NOT_FOUND, null));
+                    continue;
+                }
+                PostComment.CommentStatus previous = (PostComment.CommentStatus) row[1];
+                if (previous == commentStatus) {
+                    result.getComments().add(new BulkModerationResultDTO.ItemOutcome(id, BulkModerationResultDTO.Outcome.UNCHANGED, previous.name()));
+                } else {
+                    result.getComments().add(new BulkModerationResultDTO.ItemOutcome(id, BulkModerationResultDTO.Outcome.UPDATED, previous.name()));
+                    changedRows.add(row);
+                    moderationStatsProvider.commentStatusChanged(previous, commentStatus);
+                    changedCommentIds.add(id);
+                }
+            }
+            if (!changedCommentIds.isEmpty()) {
+                result.setUpdatedComments(postCommentRepository.updateModeration(changedCommentIds, commentStatus, moderatorId, notes, now));
+            }
+            // Only ACTIVE comments count towards the post's comment_count
+            for (Object[] row : changedRows) {
+                boolean wasActive = row[1] == PostComment.CommentStatus.ACTIVE;
+                boolean isActive = commentStatus == PostComment.CommentStatus.ACTIVE;
+                if (wasActive != isActive) {
+                    postCounterBuffer.recordComment((Long) row[2], isActive ? 1 : -1);
+                }
+                contentSearchIndex.updateCommentStatus((Long) row[0], commentStatus);
+                if (commentStatus != PostComment.CommentStatus.PENDING_MODERATION) {
+                    moderationDispatcher.complete(ModerationDispatcher.ItemType.COMMENT, (Long) row[0]);
+                }
+            }
+        }
+        
+        for (Post post : changedPosts) {
+            post.setStatus(postStatus);
+            if (postStatus == Post.PostStatus.APPROVED) {
+                homeTimelineStore.fanOut(post);
+            }
+            if (!isVisible(post)) {
+                trendingPostScorer.remove(post.getId());
+            }
+            contentSearchIndex.updatePostStatus(post.getId(), postStatus);
+            if (postStatus == Post.PostStatus.PENDING_MODERATION) {
+                moderationDispatcher.enqueue(ModerationDispatcher.ItemType.POST, post.getId(), post.getCreatedAt());
+            } else {
+                moderationDispatcher.complete(ModerationDispatcher.ItemType.POST, post.getId());
+            }
+        }
+        
+        List<Long> changedPostIds = changedPosts.stream().map(Post::getId).collect(Collectors.toList());
+        if (!changedPostIds.isEmpty() || !changedCommentIds.isEmpty()) {
+            eventPublisher.publishEvent(new ModerationBatchEvent(postStatus.name(), notes, changedPostIds, changedCommentIds));
+        }
+        log.info("Bulk moderation updated {} posts and {} comments", result.getUpdatedPosts(), result.getUpdatedComments());
+        
+        return ApiResponse.ok("Bulk moderation applied", result);
+    }
+    
+    /**
+     * Leases the next pending posts/comments to a moderator. Items that were moderated outside
+     * the queue in the meantime are dropped from the lease instead of being returned.
+     */
+    public ApiResponse<ModerationLeaseDTO> leaseModerationWork(Long moderatorId, int limit) {
+        ModerationDispatcher.LeaseGrant grant = moderationDispatcher.lease(moderatorId, limit);
+        
+        List<Long> postIds = new ArrayList<>();
+        List<Long> commentIds = new ArrayList<>();
+        for (ModerationDispatcher.WorkItem item : grant.getItems()) {
+            (item.getType() == ModerationDispatcher.ItemType.POST ? postIds : commentIds).add(item.getId());
+        }
+        Map<Long, PostDTO> postsById = postFeedHydrator.hydrate(postRepository.findAllById(postIds), null).stream()
+                .collect(Collectors.toMap(PostDTO::getId, dto -> dto));
+        Map<Long, PostCommentDTO> commentsById = mapCommentsToDTOs(postCommentRepository.findAllById(commentIds)).stream()
+                .collect(Collectors.toMap(PostCommentDTO::getId, dto -> dto));
+        
+        List<ModerationLeaseDTO.Item> items = new ArrayList<>(grant.getItems().size());
+        for (ModerationDispatcher.WorkItem item : grant.getItems()) {
+            if (item.getType() == ModerationDispatcher.ItemType.POST) {
+                PostDTO post = postsById.get(item.getId());
+                if (post == null || (!item.isFlagged() && post.getStatus() != Post.PostStatus.PENDING_MODERATION)) {
+                    moderationDispatcher.complete(item.getType(), item.getId());
+                    continue;
+                }
+                items.add(new ModerationLeaseDTO.Item(item.getType().name(), item.getId(), item.isFlagged(), post, null));
+            } else {
+                PostCommentDTO comment = commentsById.get(item.getId());
+                if (comment == null || (!item.isFlagged() && comment.getStatus() != PostComment.CommentStatus.PENDING_MODERATION)) {
+                    moderationDispatcher.complete(item.getType(), item.getId());
+                    continue;
+                }
+                items.add(new ModerationLeaseDTO.Item(item.getType().name(), item.getId(), item.isFlagged(), null, comment));
+            }
+        }
+        
+        ModerationLeaseDTO lease = ModerationLeaseDTO.builder()
+                .leaseId(items.isEmpty() ? null : grant.getLeaseId())
+                .expiresAt(items.isEmpty() ? null : grant.getExpiresAt())
+                .remaining(moderationDispatcher.getQueuedCount())
+                .items(items)
+                .build();
+        return ApiResponse.ok(items.isEmpty() ? "No items waiting for moderation" : "Moderation items leased", lease);
+    }
+    
+    public ApiResponse<Integer> releaseModerationLease(String leaseId, Long moderatorId) {
+        log.info("Moderator {} releasing lease {}", moderatorId, leaseId);
+        return ApiResponse.ok("Lease released", moderationDispatcher.release(leaseId, moderatorId));
+    }
+    
     public ApiResponse<PageResponse<PostDTO>> getPostsPendingModeration(Pageable pageable) {
         log.info("Getting posts pending moderation");
         
         Page<Post> posts = postRepository.findByStatusOrderByCreatedAtDesc(
                 Post.PostStatus.PENDING_MODERATION, pageable);
         
-        List<PostDTO> postDTOs = posts.getContent().stream()
-                .map(post -> mapToDTO(post, null))
-                .collect(Collectors.toList());
+        List<PostDTO> postDTOs = postFeedHydrator.hydrate(posts.getContent(), null);
         
         PageResponse<PostDTO> pageResponse = PageResponse.<PostDTO>builder()
                 .content(postDTOs)
@@ -274,43 +718,72 @@ public class PostService {
     @Transactional
     public ApiResponse<Void> flagPost(Long postId, Long userId, String reason) {
         log.info("User {} flagged post {}. Reason: {}", userId, postId, reason);
-        // Ensure post exists
-        postRepository.findById(postId).orElseThrow(() -> new NotFoundException("Post not found"));
-        // Logged for admin review; implement notifications if needed
+        Post post = postRepository.findById(postId).orElseThrow(() -> new NotFoundException("Post not found"));
+        // Flagged posts jump ahead of unflagged work in the moderation queue
+        moderationDispatcher.flag(ModerationDispatcher.ItemType.POST, postId, post.getCreatedAt());
+        
+        // Flags are buffered and persisted in batches; enough distinct flaggers hides the post until reviewed
+        boolean thresholdCrossed = postFlagAggregator.record(postId, userId, reason);
+        if (thresholdCrossed && isVisible(post)) {
+            int flaggers = postFlagAggregator.distinctFlaggers(postId);
+            log.warn("Post {} flagged by {} distinct users, hiding pending review", postId, flaggers);
+            moderatePost(postId, Post.PostStatus.HIDDEN, null, "Auto-hidden after flags from " + flaggers + " users");
+            // Hidden posts still need a moderator decision
+            moderationDispatcher.flag(ModerationDispatcher.ItemType.POST, postId, post.getCreatedAt());
+        }
         return ApiResponse.ok("Post flagged for review", null);
     }
     
-    private PostDTO mapToDTO(Post post, Long currentUserId) {
-        int likeCount = (int) postLikeRepository.countByPostId(post.getId());
-        int commentCount = (int) postCommentRepository.countByPostIdAndStatus(post.getId(), PostComment.CommentStatus.ACTIVE);
-        boolean isLiked = currentUserId != null && postLikeRepository.existsByPostIdAndUserId(post.getId(), currentUserId);
-        
-        return PostDTO.builder()
-                .id(post.getId())
-                .authorId(post.getAuthorId())
-                .authorName(getUserName(post.getAuthorId()))
-                .groupId(post.getGroupId())
-                .groupName(getGroupName(post.getGroupId()))
-                .content(post.getContent())
-                .imageUrl(post.getImageUrl())
-                .postType(post.getPostType())
-                .status(post.getStatus())
-                .moderatedBy(post.getModeratedBy())
-                .moderationNotes(post.getModerationNotes())
-                .likeCount(likeCount)
-                .commentCount(commentCount)
-                .isLikedByCurrentUser(isLiked)
-                .createdAt(post.getCreatedAt())
-                .updatedAt(post.getUpdatedAt())
+    public ApiResponse<PageResponse<PostFlagDTO>> getPostFlags(Long postId, Pageable pageable) {
+        log.info("Getting flags for post: {}", postId);
+        
+        Page<PostFlag> flags = postFlagRepository.findByPostIdOrderByCreatedAtDesc(postId, pageable);
+        List<PostFlagDTO> flagDTOs = flags.getContent().stream()
+                .map(flag -> PostFlagDTO.builder()
+                        .id(flag.getId())
+                        .postId(flag.getPostId())
+                        .userId(flag.getUserId())
+                        .reason(flag.getReason())
+                        .createdAt(flag.getCreatedAt())
+                        .build())
+                .collect(Collectors.toList());
+        
+        PageResponse<PostFlagDTO> pageResponse = PageResponse.<PostFlagDTO>builder()
+                .content(flagDTOs)
+                .page(flags.getNumber())
+                .size(flags.getSize())
+                .totalElements(flags.getTotalElements())
+                .totalPages(flags.getTotalPages())
                 .build();
+        
+        return ApiResponse.ok("Post flags retrieved successfully", pageResponse);
+    }
+    
+    private PostDTO mapToDTO(Post post, Long currentUserId) {
+        return postFeedHydrator.hydrate(post, currentUserId);
     }
     
     private PostCommentDTO mapCommentToDTO(PostComment comment) {
+        return mapCommentsToDTOs(List.of(comment)).get(0);
+    }
+    
+    // Resolves every author on the page with a single directory lookup
+    private List<PostCommentDTO> mapCommentsToDTOs(List<PostComment> comments) {
+        Map<Long, UserDirectory.UserSummary> authors = userDirectory.resolve(comments.stream()
+                .map(PostComment::getAuthorId)
+                .collect(Collectors.toSet()));
+        return comments.stream()
+                .map(comment -> mapCommentToDTO(comment, authors.get(comment.getAuthorId())))
+                .collect(Collectors.toList());
+    }
+    
+    private PostCommentDTO mapCommentToDTO(PostComment comment, UserDirectory.UserSummary author) {
         return PostCommentDTO.builder()
                 .id(comment.getId())
                 .postId(comment.getPost().getId())
                 .authorId(comment.getAuthorId())
-                .authorName(getUserName(comment.getAuthorId()))
+                .authorName(author != null ? author.getDisplayName() : null)
+                .authorAvatarUrl(author != null ? author.getAvatarUrl() : null)
                 .content(comment.getContent())
                 .parentCommentId(comment.getParentCommentId())
                 .status(comment.getStatus())
@@ -321,19 +794,24 @@ public class PostService {
     }
     
     private List<Long> getUserGroupIds(Long userId) {
-        return List.of();
+        return groupMembershipRepository.findGroupIdsByUserIdAndStatus(userId, GroupMembership.MembershipStatus.ACTIVE);
+    }
+    
+    private static boolean isBefore(Instant createdAt, Long id, PageCursor cursor) {
+        int cmp = createdAt.compareTo(cursor.getCreatedAt());
+        return cmp < 0 || (cmp == 0 && id < cursor.getId());
     }
     
-    private String getUserName(Long userId) {
-        if (userId == null) return null;
-        return userRepository.findById(userId)
-                .map(User::getFullName)
-                .orElse("Unknown User");
+    private static boolean isVisible(Post post) {
+        return post.getStatus() != Post.PostStatus.HIDDEN && post.getStatus() != Post.PostStatus.REJECTED;
     }
     
-    private String getGroupName(Long groupId) {
-        if (groupId == null) return null;
-        return "Group " + groupId;
+    private static String screenNotes(List<String> screenHits) {
+        if (screenHits == null || screenHits.isEmpty()) {
+            return null;
+        }
+        String notes = "Auto-screen matched: " + String.join(", ", screenHits);
+        return notes.length() > 500 ? notes.substring(0, 497) + "..." : notes;
     }
     
     public ApiResponse<PageResponse<PostDTO>> getPostsByStatus(Post.PostStatus status, Pageable pageable) {
@@ -341,9 +819,7 @@ public class PostService {
         
         Page<Post> posts = postRepository.findByStatusOrderByCreatedAtDesc(status, pageable);
         
-        List<PostDTO> postDTOs = posts.getContent().stream()
-                .map(post -> mapToDTO(post, null))
-                .collect(Collectors.toList());
+        List<PostDTO> postDTOs = postFeedHydrator.hydrate(posts.getContent(), null);
         
         PageResponse<PostDTO> pageResponse = PageResponse.<PostDTO>builder()
                 .content(postDTOs)
@@ -363,11 +839,25 @@ public class PostService {
         PostComment comment = postCommentRepository.findById(commentId)
                 .orElseThrow(() -> new NotFoundException("Comment not found"));
         
+        // Only ACTIVE comments count towards the post's comment_count
+        boolean wasActive = comment.getStatus() == PostComment.CommentStatus.ACTIVE;
+        boolean isActive = status == PostComment.CommentStatus.ACTIVE;
+        if (wasActive != isActive) {
+            postCounterBuffer.recordComment(comment.getPost().getId(), isActive ? 1 : -1);
+        }
+        
+        moderationStatsProvider.commentStatusChanged(comment.getStatus(), status);
         comment.setStatus(status);
         comment.setModeratedBy(moderatorId);
         
         PostComment savedComment = postCommentRepository.save(comment);
         log.info("Comment {} moderated to status {}", commentId, status);
+        contentSearchIndex.updateCommentStatus(commentId, status);
+        if (status == PostComment.CommentStatus.PENDING_MODERATION) {
+            moderationDispatcher.enqueue(ModerationDispatcher.ItemType.COMMENT, commentId, savedComment.getCreatedAt());
+        } else {
+            moderationDispatcher.complete(ModerationDispatcher.ItemType.COMMENT, commentId);
+        }
         
         return ApiResponse.ok("Comment moderated successfully", mapCommentToDTO(savedComment));
     }
@@ -378,9 +868,7 @@ public class PostService {
         Page<PostComment> comments = postCommentRepository.findByStatusOrderByCreatedAtDesc(
                 PostComment.CommentStatus.PENDING_MODERATION, pageable);
         
-        List<PostCommentDTO> commentDTOs = comments.getContent().stream()
-                .map(this::mapCommentToDTO)
-                .collect(Collectors.toList());
+        List<PostCommentDTO> commentDTOs = mapCommentsToDTOs(comments.getContent());
         
         PageResponse<PostCommentDTO> pageResponse = PageResponse.<PostCommentDTO>builder()
                 .content(commentDTOs)
@@ -396,17 +884,18 @@ public class PostService {
     public ApiResponse<AdminStatsDTO> getAdminStats() {
         log.info("Getting admin statistics");
         
+        // Served from the in-memory snapshot; no database queries per request
         AdminStatsDTO stats = new AdminStatsDTO();
-        stats.setTotalPosts(postRepository.count());
-        stats.setPendingPosts(postRepository.countByStatus(Post.PostStatus.PENDING_MODERATION));
-        stats.setApprovedPosts(postRepository.countByStatus(Post.PostStatus.APPROVED));
-        stats.setRejectedPosts(postRepository.countByStatus(Post.PostStatus.REJECTED));
-        stats.setHiddenPosts(postRepository.countByStatus(Post.PostStatus.HIDDEN));
-        stats.setTotalComments(postCommentRepository.count());
-        stats.setPendingComments(postCommentRepository.countByStatus(PostComment.CommentStatus.PENDING_MODERATION));
-        stats.setApprovedComments(postCommentRepository.countByStatus(PostComment.CommentStatus.APPROVED));
-        stats.setRejectedComments(postCommentRepository.countByStatus(PostComment.CommentStatus.REJECTED));
-        stats.setHiddenComments(postCommentRepository.countByStatus(PostComment.CommentStatus.HIDDEN));
+        stats.setTotalPosts(moderationStatsProvider.getTotalPosts());
+        stats.setPendingPosts(moderationStatsProvider.getPostCount(Post.PostStatus.PENDING_MODERATION));
+        stats.setApprovedPosts(moderationStatsProvider.getPostCount(Post.PostStatus.APPROVED));
+        stats.setRejectedPosts(moderationStatsProvider.getPostCount(Post.PostStatus.REJECTED));
+        stats.setHiddenPosts(moderationStatsProvider.getPostCount(Post.PostStatus.HIDDEN));
+        stats.setTotalComments(moderationStatsProvider.getTotalComments());
+        stats.setPendingComments(moderationStatsProvider.getCommentCount(PostComment.CommentStatus.PENDING_MODERATION));
+        stats.setApprovedComments(moderationStatsProvider.getCommentCount(PostComment.CommentStatus.APPROVED));
+        stats.setRejectedComments(moderationStatsProvider.getCommentCount(PostComment.CommentStatus.REJECTED));
+        stats.setHiddenComments(moderationStatsProvider.getCommentCount(PostComment.CommentStatus.HIDDEN));
         
         return ApiResponse.ok("Admin statistics retrieved successfully", stats);
     }
@@ -0,0 +1,99 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.config.RabbitMQConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Cluster event bus over the {@link RabbitMQConfig#CLUSTER_EVENTS_EXCHANGE} fanout exchange
+ * ({@code app.cluster.transport=rabbit}).
+ *
+ * Each node consumes from its own auto-delete queue. The values travel as a big-endian long
+ * array in the body, the channel and origin node as headers; a node ignores its own events.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cluster.transport", havingValue = "rabbit")
+@RequiredArgsConstructor
+@Slf4j
+public class RabbitClusterEventBus implements ClusterEventBus {
+
+    private static final String NODE_HEADER = "x-cluster-node";
+    private static final String CHANNEL_HEADER = "x-cluster-channel";
+
+    private final RabbitTemplate rabbitTemplate;
+
+    @Value("${app.cluster.node-id:}")
+    private String nodeId;
+
+    private final ConcurrentHashMap<String, List<Consumer<long[]>>> handlers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void start() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+        log.info("Cluster event bus enabled, node id {}", nodeId);
+    }
+
+    @Override
+    public void publish(String channel, long... values) {
+        ByteBuffer body = ByteBuffer.allocate(values.length * Long.BYTES);
+        for (long value : values) {
+            body.putLong(value);
+        }
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_BYTES);
+        properties.setHeader(NODE_HEADER, nodeId);
+        properties.setHeader(CHANNEL_HEADER, channel);
+        try {
+            rabbitTemplate.send(RabbitMQConfig.CLUSTER_EVENTS_EXCHANGE, "", new Message(body.array(), properties));
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish cluster event on {}: {}", channel, e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(String channel, Consumer<long[]> handler) {
+        handlers.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    @RabbitListener(queues = "#{clusterEventQueue.name}")
+    public void handle(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        if (nodeId.equals(properties.getHeader(NODE_HEADER))) {
+            return;
+        }
+        String channel = properties.getHeader(CHANNEL_HEADER);
+        List<Consumer<long[]>> channelHandlers = channel != null ? handlers.get(channel) : null;
+        if (channelHandlers == null) {
+            return;
+        }
+        ByteBuffer body = ByteBuffer.wrap(message.getBody());
+        long[] values = new long[body.remaining() / Long.BYTES];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = body.getLong();
+        }
+        for (Consumer<long[]> handler : channelHandlers) {
+            try {
+                handler.accept(values);
+            } catch (RuntimeException e) {
+                log.error("Failed to handle cluster event on {}", channel, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.config.RabbitMQConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Cluster transport over the {@link RabbitMQConfig#WS_BROADCAST_EXCHANGE} fanout exchange.
+ *
+ * Each node consumes from its own auto-delete queue bound to the exchange, so every node sees
+ * every envelope. The serialized payload is the AMQP body as is; routing fields travel as headers.
+ */
+@Component
+@Profile("ws")
+@ConditionalOnProperty(name = "app.ws.cluster.transport", havingValue = "rabbit")
+@RequiredArgsConstructor
+@Slf4j
+public class RabbitStompClusterTransport implements StompClusterTransport {
+
+    private static final String NODE_HEADER = "x-stomp-node";
+    private static final String DESTINATION_HEADER = "x-stomp-destination";
+    private static final String USER_HEADER = "x-stomp-user";
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private volatile Consumer<StompEnvelope> receiver = envelope -> { };
+
+    @Override
+    public void publish(StompEnvelope envelope) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(envelope.getContentType());
+        properties.setHeader(NODE_HEADER, envelope.getOriginNodeId());
+        properties.setHeader(DESTINATION_HEADER, envelope.getDestination());
+        if (envelope.getUser() != null) {
+            properties.setHeader(USER_HEADER, envelope.getUser());
+        }
+        rabbitTemplate.send(RabbitMQConfig.WS_BROADCAST_EXCHANGE, "", new Message(envelope.getPayload(), properties));
+    }
+
+    @Override
+    public void onReceive(Consumer<StompEnvelope> receiver) {
+        this.receiver = receiver;
+    }
+
+    @RabbitListener(queues = "#{wsBroadcastQueue.name}")
+    public void handle(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        String destination = properties.getHeader(DESTINATION_HEADER);
+        if (destination == null) {
+            log.warn("Dropping WebSocket broadcast without a destination header");
+            return;
+        }
+        receiver.accept(new StompEnvelope(properties.getHeader(NODE_HEADER), destination,
+                properties.getHeader(USER_HEADER), properties.getContentType(), message.getBody()));
+    }
+}
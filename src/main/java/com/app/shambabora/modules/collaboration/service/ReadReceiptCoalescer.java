@@ -0,0 +1,110 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.modules.collaboration.entity.DirectMessage;
+import com.app.shambabora.modules.collaboration.repository.ConversationSummaryRepository;
+import com.app.shambabora.modules.collaboration.repository.DirectMessageRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Marks direct messages as read with one set-based UPDATE per conversation.
+ *
+ * The app reports reads as messages scroll into view, which produces bursts of calls for the
+ * same conversation. {@link #submit} only records the highest message id seen per
+ * (reader, sender) pair; the flusher then applies each pair with a single statement every
+ * {@code app.messages.read-receipt-flush-ms}. {@link #markRead} applies a pair immediately and
+ * joins the caller's transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReadReceiptCoalescer {
+
+    private final DirectMessageRepository directMessageRepository;
+    private final ConversationSummaryRepository conversationSummaryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadCounterService unreadCounterService;
+
+    // (reader, sender) -> highest message id reported as read
+    private final ConcurrentHashMap<ConversationKey, Long> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Queues a read receipt for messages from {@code senderId} up to and including
+     * {@code upToMessageId}; null means every message currently in the conversation.
+     */
+    public void submit(Long readerId, Long senderId, Long upToMessageId) {
+        long upTo = upToMessageId != null ? upToMessageId : Long.MAX_VALUE;
+        pending.merge(new ConversationKey(readerId, senderId), upTo, Math::max);
+    }
+
+    /**
+     * Marks unread messages from {@code senderId} to {@code readerId} as read and returns how
+     * many changed. Runs in the caller's transaction when there is one.
+     */
+    public int markRead(Long readerId, Long senderId, Long upToMessageId) {
+        Integer updated = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            int count = directMessageRepository.markConversationRead(readerId, senderId,
+                    upToMessageId != null ? upToMessageId : Long.MAX_VALUE, DirectMessage.MessageStatus.READ, now);
+            if (upToMessageId == null) {
+                conversationSummaryRepository.clearUnread(readerId, senderId, now);
+            } else if (count > 0) {
+                conversationSummaryRepository.decrementUnread(readerId, senderId, count, now);
+            }
+            unreadCounterService.messagesRead(readerId, count);
+            return count;
+        });
+        return updated != null ? updated : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.messages.read-receipt-flush-ms:500}")
+    public void flush() {
+        for (ConversationKey key : pending.keySet()) {
+            Long upTo = pending.remove(key);
+            if (upTo == null) {
+                continue;
+            }
+            try {
+                markRead(key.readerId, key.senderId, upTo == Long.MAX_VALUE ? null : upTo);
+            } catch (RuntimeException e) {
+                log.error("Failed to apply read receipt for reader {} and sender {}, re-queueing", key.readerId, key.senderId, e);
+                pending.merge(key, upTo, Math::max);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static final class ConversationKey {
+        private final Long readerId;
+        private final Long senderId;
+
+        ConversationKey(Long readerId, Long senderId) {
+            this.readerId = readerId;
+            this.senderId = senderId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ConversationKey)) return false;
+            ConversationKey other = (ConversationKey) o;
+            return readerId.equals(other.readerId) && senderId.equals(other.senderId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * readerId.hashCode() + senderId.hashCode();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tokenizer shared by indexing and querying in {@link ContentSearchIndex}.
+ * Lower-cases, splits on anything that is not a letter or digit, drops English and Swahili
+ * stop words and folds simple English plurals ("seeds" -> "seed", "varieties" -> "variety").
+ * Swahili words are kept as-is since its affixes carry meaning we do not want to strip.
+ */
+final class SearchTokenizer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            // English
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have",
+            "i", "in", "is", "it", "its", "my", "of", "on", "or", "our", "so", "that", "the",
+            "their", "this", "to", "was", "we", "were", "what", "when", "which", "who", "will",
+            "with", "you", "your",
+            // Swahili
+            "na", "ya", "wa", "la", "za", "cha", "vya", "kwa", "ni", "katika", "hii", "hiyo",
+            "hilo", "huo", "hizo", "kama", "lakini", "au", "pia", "sana", "tu", "yake", "wao",
+            "sisi", "mimi", "wewe", "yeye", "je", "ndiyo", "hapana", "kuwa", "kwamba", "bado",
+            "hata", "zaidi", "nini", "gani"
+    );
+
+    private SearchTokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addToken(tokens, lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addToken(List<String> tokens, String token) {
+        if (token.length() < 2 || STOP_WORDS.contains(token)) {
+            return;
+        }
+        tokens.add(stem(token));
+    }
+
+    private static String stem(String token) {
+        if (token.length() > 4 && token.endsWith("ies")) {
+            return token.substring(0, token.length() - 3) + "y";
+        }
+        if (token.length() > 3 && token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us")) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+}
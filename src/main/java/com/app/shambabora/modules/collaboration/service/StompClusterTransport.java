@@ -0,0 +1,16 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link StompEnvelope}s to every node of the cluster, including the sender.
+ */
+public interface StompClusterTransport {
+
+    void publish(StompEnvelope envelope);
+
+    /**
+     * Registers the callback that receives envelopes published by any node.
+     */
+    void onReceive(Consumer<StompEnvelope> receiver);
+}
@@ -0,0 +1,34 @@
+package com.app.shambabora.modules.collaboration.service;
+
+/**
+ * Payload encodings a STOMP client can ask for with the {@code x-encoding} header on CONNECT.
+ */
+public enum StompEncoding {
+    JSON("json"),
+    CBOR("cbor"),
+    SMILE("smile");
+
+    private final String headerValue;
+
+    StompEncoding(String headerValue) {
+        this.headerValue = headerValue;
+    }
+
+    public String getHeaderValue() {
+        return headerValue;
+    }
+
+    /**
+     * Unknown or missing values fall back to JSON.
+     */
+    public static StompEncoding fromHeader(String value) {
+        if (value != null) {
+            for (StompEncoding encoding : values()) {
+                if (encoding.headerValue.equalsIgnoreCase(value.trim())) {
+                    return encoding;
+                }
+            }
+        }
+        return JSON;
+    }
+}
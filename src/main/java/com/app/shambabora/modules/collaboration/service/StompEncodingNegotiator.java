@@ -0,0 +1,122 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-session payload encoding, chosen by the client on STOMP CONNECT.
+ *
+ * A client sends {@code x-encoding: cbor} (or {@code smile}) in its CONNECT frame to receive
+ * MESSAGE payloads in that encoding with short field names (see {@link CompactFrameEncoder});
+ * anything else, or no header, keeps JSON. Binary frames need a plain WebSocket, so the
+ * request is only honoured on the native {@code /ws-native} endpoint and SockJS sessions stay
+ * on JSON. Re-encoded frames carry {@code content-type: application/octet-stream} (which makes
+ * Spring send them as binary WebSocket messages) and an {@code x-encoding} header.
+ */
+@Component
+@Profile("ws")
+@RequiredArgsConstructor
+@Slf4j
+public class StompEncodingNegotiator {
+
+    public static final String ENCODING_HEADER = "x-encoding";
+
+    private final CompactFrameEncoder compactFrameEncoder;
+    private final StompSessionRegistry sessionRegistry;
+
+    private final ConcurrentHashMap<String, StompEncoding> sessionEncodings = new ConcurrentHashMap<>();
+
+    /**
+     * Interceptor for the client inbound channel: records the encoding asked for on CONNECT.
+     */
+    public ChannelInterceptor inbound() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                MessageHeaders headers = message.getHeaders();
+                SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(headers);
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+                if (sessionId == null) {
+                    return message;
+                }
+                if (type == SimpMessageType.CONNECT) {
+                    negotiate(sessionId, SimpMessageHeaderAccessor.wrap(message).getFirstNativeHeader(ENCODING_HEADER));
+                } else if (type == SimpMessageType.DISCONNECT) {
+                    sessionEncodings.remove(sessionId);
+                }
+                return message;
+            }
+        };
+    }
+
+    /**
+     * Interceptor for the client outbound channel: re-encodes JSON MESSAGE payloads for
+     * sessions that negotiated a compact encoding.
+     */
+    public ChannelInterceptor outbound() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                MessageHeaders headers = message.getHeaders();
+                if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE
+                        || !(message.getPayload() instanceof byte[])) {
+                    return message;
+                }
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+                StompEncoding encoding = sessionId != null ? sessionEncodings.get(sessionId) : null;
+                if (encoding == null || !isJson(headers.get(MessageHeaders.CONTENT_TYPE))) {
+                    return message;
+                }
+                // User destinations are delivered on a per-session destination; report the original
+                Object original = headers.get(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION);
+                String destination = original != null ? original.toString() : SimpMessageHeaderAccessor.getDestination(headers);
+                byte[] encoded;
+                try {
+                    encoded = compactFrameEncoder.encode((byte[]) message.getPayload(), encoding, destination);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Failed to encode message for {} as {}, sending JSON: {}", destination, encoding, e.getMessage());
+                    return message;
+                }
+                SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+                accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+                accessor.setNativeHeader(ENCODING_HEADER, encoding.getHeaderValue());
+                return MessageBuilder.createMessage(encoded, accessor.getMessageHeaders());
+            }
+        };
+    }
+
+    private void negotiate(String sessionId, String requested) {
+        StompEncoding encoding = StompEncoding.fromHeader(requested);
+        if (encoding == StompEncoding.JSON) {
+            sessionEncodings.remove(sessionId);
+            return;
+        }
+        if (!sessionRegistry.supportsBinary(sessionId)) {
+            log.debug("Session {} asked for {} over SockJS, keeping JSON", sessionId, encoding);
+            return;
+        }
+        sessionEncodings.put(sessionId, encoding);
+    }
+
+    private static boolean isJson(Object contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MimeType mimeType = contentType instanceof MimeType ? (MimeType) contentType : MimeTypeUtils.parseMimeType(contentType.toString());
+        return MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(mimeType);
+    }
+}
@@ -0,0 +1,30 @@
+package com.app.shambabora.modules.collaboration.service;
+
+/**
+ * One outbound STOMP message as it travels between nodes: the target destination (and user,
+ * for user destinations), the already serialized payload with its content type, and the node
+ * that produced it.
+ */
+public final class StompEnvelope {
+
+    private final String originNodeId;
+    private final String destination;
+    private final String user;
+    private final String contentType;
+    private final byte[] payload;
+
+    public StompEnvelope(String originNodeId, String destination, String user, String contentType, byte[] payload) {
+        this.originNodeId = originNodeId;
+        this.destination = destination;
+        this.user = user;
+        this.contentType = contentType;
+        this.payload = payload;
+    }
+
+    public String getOriginNodeId() { return originNodeId; }
+    public String getDestination() { return destination; }
+    /** Target user for user destinations, null for broadcast destinations. */
+    public String getUser() { return user; }
+    public String getContentType() { return contentType; }
+    public byte[] getPayload() { return payload; }
+}
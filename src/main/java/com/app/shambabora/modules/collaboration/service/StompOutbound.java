@@ -0,0 +1,21 @@
+package com.app.shambabora.modules.collaboration.service;
+
+/**
+ * Outbound path for STOMP messages to WebSocket clients.
+ *
+ * Everything the server pushes goes through here rather than straight to
+ * {@code SimpMessagingTemplate}, so that in a multi-node deployment a message reaches clients
+ * connected to any instance (see {@code app.ws.cluster.transport}).
+ */
+public interface StompOutbound {
+
+    /**
+     * Sends to every subscriber of a broadcast destination such as {@code /topic/feed}.
+     */
+    void send(String destination, Object payload);
+
+    /**
+     * Sends to one user's sessions on a user destination such as {@code /queue/messages}.
+     */
+    void sendToUser(String user, String destination, Object payload);
+}
@@ -0,0 +1,362 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+import org.springframework.web.socket.sockjs.transport.SockJsSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded outbound queues for STOMP sessions, with slow-consumer eviction.
+ *
+ * Every WebSocket session is wrapped so that sending a frame only appends it to the session's
+ * own queue; a small shared pool drains queues onto the sockets, one task per session at a
+ * time. A queue holds at most {@code app.ws.outbound.max-queued-frames} frames and
+ * {@code app.ws.outbound.max-queued-bytes} bytes. When it is full the oldest droppable frame
+ * (presence, chat joins and unread counts: anything whose destination starts with one of
+ * {@code app.ws.outbound.droppable-prefixes}) is discarded, since it is either ephemeral or
+ * superseded by a later frame. Post activity frames carry deltas and moderation updates, so
+ * they are kept along with direct messages and control frames.
+ *
+ * A session that stays full for {@code app.ws.outbound.saturation-timeout-ms}, whose reliable
+ * frames alone exceed four times the byte limit, or whose socket write has been blocked for
+ * {@code app.ws.outbound.send-time-limit-ms} is closed. The client reconnects and catches up
+ * through the REST endpoints, so one slow phone cannot hold memory or pool threads that other
+ * users need.
+ */
+@Component
+@Profile("ws")
+@RequiredArgsConstructor
+@Slf4j
+public class StompSessionRegistry {
+
+    private static final int MAX_HEADER_SCAN = 1024;
+    private static final CloseStatus SLOW_CONSUMER = CloseStatus.SESSION_NOT_RELIABLE.withReason("Slow consumer");
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.ws.outbound.max-queued-frames:200}")
+    private int maxQueuedFrames;
+
+    @Value("${app.ws.outbound.max-queued-bytes:524288}")
+    private long maxQueuedBytes;
+
+    @Value("${app.ws.outbound.saturation-timeout-ms:15000}")
+    private long saturationTimeoutMillis;
+
+    @Value("${app.ws.outbound.send-time-limit-ms:10000}")
+    private long sendTimeLimitMillis;
+
+    @Value("${app.ws.outbound.drain-threads:8}")
+    private int drainThreads;
+
+    @Value("${app.ws.outbound.drain-batch:32}")
+    private int drainBatch;
+
+    @Value("${app.ws.outbound.droppable-prefixes:/topic/presence,/topic/public,/user/queue/unread}")
+    private List<String> droppablePrefixes;
+
+    private final ConcurrentHashMap<String, BoundedSession> sessions = new ConcurrentHashMap<>();
+
+    private ThreadPoolTaskExecutor drainExecutor;
+    private Counter droppedFrames;
+    private Counter evictedSaturated;
+    private Counter evictedOverflow;
+    private Counter evictedSendTimeout;
+
+    @PostConstruct
+    public void start() {
+        drainExecutor = new ThreadPoolTaskExecutor();
+        drainExecutor.setCorePoolSize(drainThreads);
+        drainExecutor.setMaxPoolSize(drainThreads);
+        drainExecutor.setThreadNamePrefix("ws-outbound-");
+        drainExecutor.initialize();
+
+        Gauge.builder("ws.outbound.sessions", sessions, ConcurrentHashMap::size)
+                .description("Open WebSocket sessions with a bounded outbound queue")
+                .register(meterRegistry);
+        Gauge.builder("ws.outbound.queue.frames", this, registry -> registry.sum(false))
+                .description("Frames waiting in all outbound session queues")
+                .register(meterRegistry);
+        Gauge.builder("ws.outbound.queue.bytes", this, registry -> registry.sum(true))
+                .description("Bytes waiting in all outbound session queues")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("ws.outbound.queue.max-frames", this, StompSessionRegistry::deepestQueue)
+                .description("Frames queued for the most backed-up session")
+                .register(meterRegistry);
+        droppedFrames = Counter.builder("ws.outbound.dropped")
+                .description("Droppable frames discarded because a session queue was full")
+                .register(meterRegistry);
+        evictedSaturated = eviction("saturated");
+        evictedOverflow = eviction("overflow");
+        evictedSendTimeout = eviction("send-timeout");
+    }
+
+    /**
+     * Wraps a newly established session; the returned session must be used for all sends.
+     */
+    public WebSocketSession register(WebSocketSession session) {
+        BoundedSession bounded = new BoundedSession(session);
+        sessions.put(session.getId(), bounded);
+        return bounded;
+    }
+
+    /**
+     * False for SockJS sessions, which can only carry text frames.
+     */
+    public boolean supportsBinary(String sessionId) {
+        BoundedSession session = sessions.get(sessionId);
+        return session != null && !(WebSocketSessionDecorator.unwrap(session) instanceof SockJsSession);
+    }
+
+    public void unregister(String sessionId) {
+        BoundedSession session = sessions.remove(sessionId);
+        if (session != null) {
+            session.discard();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.ws.outbound.check-ms:1000}")
+    public void evictSlowConsumers() {
+        long now = System.currentTimeMillis();
+        for (BoundedSession session : sessions.values()) {
+            Counter reason = session.evictionReason(now);
+            if (reason != null) {
+                log.info("Closing slow WebSocket session {} ({} frames queued)", session.getId(), session.queuedFrames());
+                reason.increment();
+                session.closeSlowConsumer();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drainExecutor.shutdown();
+    }
+
+    private Counter eviction(String reason) {
+        return Counter.builder("ws.outbound.evictions")
+                .description("WebSocket sessions closed for not keeping up with their outbound queue")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private double sum(boolean bytes) {
+        long total = 0;
+        for (BoundedSession session : sessions.values()) {
+            total += bytes ? session.queuedBytes() : session.queuedFrames();
+        }
+        return total;
+    }
+
+    private double deepestQueue() {
+        long max = 0;
+        for (BoundedSession session : sessions.values()) {
+            max = Math.max(max, session.queuedFrames());
+        }
+        return max;
+    }
+
+    // STOMP MESSAGE frames carry their destination as a header; anything else is a control frame.
+    // Headers are ASCII in text and binary frames alike, so only the header block is decoded.
+    private boolean isDroppable(WebSocketMessage<?> message) {
+        String frame;
+        if (message instanceof TextMessage) {
+            frame = ((TextMessage) message).getPayload();
+        } else if (message instanceof BinaryMessage) {
+            ByteBuffer payload = ((BinaryMessage) message).getPayload().duplicate();
+            int length = Math.min(payload.remaining(), MAX_HEADER_SCAN);
+            byte[] head = new byte[length];
+            payload.get(head);
+            frame = new String(head, StandardCharsets.ISO_8859_1);
+        } else {
+            return false;
+        }
+        if (!frame.startsWith("MESSAGE\n")) {
+            return false;
+        }
+        int start = frame.indexOf("\ndestination:");
+        int headersEnd = frame.indexOf("\n\n");
+        if (start < 0 || (headersEnd >= 0 && start > headersEnd)) {
+            return false;
+        }
+        start += "\ndestination:".length();
+        for (String prefix : droppablePrefixes) {
+            if (frame.startsWith(prefix, start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Frame {
+        private final WebSocketMessage<?> message;
+        private final boolean droppable;
+        private final long bytes;
+
+        Frame(WebSocketMessage<?> message, boolean droppable, long bytes) {
+            this.message = message;
+            this.droppable = droppable;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Session whose sends are queued and written by the drain pool.
+     */
+    private final class BoundedSession extends WebSocketSessionDecorator {
+        private final ArrayDeque<Frame> queue = new ArrayDeque<>();
+        private long queuedBytes;
+        private long reliableBytes;
+        private boolean draining;
+        private boolean closed;
+        private long saturatedSinceMillis;
+        private volatile long sendingSinceMillis;
+
+        BoundedSession(WebSocketSession delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            Frame frame = new Frame(message, isDroppable(message), message.getPayloadLength());
+            boolean startDrain;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                queue.addLast(frame);
+                queuedBytes += frame.bytes;
+                if (!frame.droppable) {
+                    reliableBytes += frame.bytes;
+                }
+                trim();
+                startDrain = !draining;
+                draining = true;
+            }
+            if (startDrain) {
+                drainExecutor.execute(this::drain);
+            }
+        }
+
+        // Drop the oldest droppable frames until the queue is back within its limits
+        private void trim() {
+            if (!overLimit()) {
+                return;
+            }
+            Iterator<Frame> it = queue.iterator();
+            while (overLimit() && it.hasNext()) {
+                Frame queued = it.next();
+                if (queued.droppable) {
+                    it.remove();
+                    queuedBytes -= queued.bytes;
+                    droppedFrames.increment();
+                }
+            }
+            if (saturatedSinceMillis == 0) {
+                saturatedSinceMillis = System.currentTimeMillis();
+            }
+        }
+
+        private boolean overLimit() {
+            return queue.size() > maxQueuedFrames || queuedBytes > maxQueuedBytes;
+        }
+
+        private void drain() {
+            for (int i = 0; i < drainBatch; i++) {
+                Frame frame;
+                synchronized (this) {
+                    frame = closed ? null : queue.pollFirst();
+                    if (frame == null) {
+                        draining = false;
+                        return;
+                    }
+                    queuedBytes -= frame.bytes;
+                    if (!frame.droppable) {
+                        reliableBytes -= frame.bytes;
+                    }
+                    if (saturatedSinceMillis != 0 && queue.size() <= maxQueuedFrames / 2 && queuedBytes <= maxQueuedBytes / 2) {
+                        saturatedSinceMillis = 0;
+                    }
+                }
+                sendingSinceMillis = System.currentTimeMillis();
+                try {
+                    getDelegate().sendMessage(frame.message);
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Failed to write to WebSocket session {}: {}", getId(), e.getMessage());
+                    discard();
+                    return;
+                } finally {
+                    sendingSinceMillis = 0;
+                }
+            }
+            // Yield the pool thread so one busy session cannot starve the others
+            drainExecutor.execute(this::drain);
+        }
+
+        synchronized Counter evictionReason(long now) {
+            if (closed) {
+                return null;
+            }
+            long sendingSince = sendingSinceMillis;
+            if (sendingSince != 0 && now - sendingSince > sendTimeLimitMillis) {
+                return evictedSendTimeout;
+            }
+            if (reliableBytes > maxQueuedBytes * 4) {
+                return evictedOverflow;
+            }
+            if (saturatedSinceMillis != 0 && now - saturatedSinceMillis > saturationTimeoutMillis) {
+                return evictedSaturated;
+            }
+            return null;
+        }
+
+        void closeSlowConsumer() {
+            discard();
+            try {
+                // Closing the socket also unblocks a write stuck on it
+                getDelegate().close(SLOW_CONSUMER);
+            } catch (IOException e) {
+                log.debug("Failed to close WebSocket session {}: {}", getId(), e.getMessage());
+            }
+        }
+
+        synchronized void discard() {
+            closed = true;
+            queue.clear();
+            queuedBytes = 0;
+            reliableBytes = 0;
+        }
+
+        synchronized int queuedFrames() {
+            return queue.size();
+        }
+
+        synchronized long queuedBytes() {
+            return queuedBytes;
+        }
+    }
+}
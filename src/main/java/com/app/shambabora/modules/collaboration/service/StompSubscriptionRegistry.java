@@ -0,0 +1,97 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which destinations have at least one subscriber on this node.
+ *
+ * Fed from the STOMP session events, so it only reflects sessions connected to this JVM.
+ * Clustered delivery asks it before handing a message from another node to the local broker,
+ * which keeps nodes from serializing and routing frames nobody here will receive.
+ */
+@Component
+@Profile("ws")
+@Slf4j
+public class StompSubscriptionRegistry {
+
+    private static final String USER_PREFIX = "/user";
+
+    // destination (or user key) -> number of live subscriptions
+    private final ConcurrentHashMap<String, Integer> subscriberCounts = new ConcurrentHashMap<>();
+    // session id -> subscription id -> destination (or user key)
+    private final ConcurrentHashMap<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+
+    public boolean hasSubscribers(String destination) {
+        return subscriberCounts.containsKey(destination);
+    }
+
+    public boolean hasUserSubscribers(String user, String destination) {
+        return subscriberCounts.containsKey(userKey(user, destination));
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String key = key(accessor.getDestination(), event.getUser());
+        if (key == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        String previous = sessions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), key);
+        if (previous != null) {
+            decrement(previous);
+        }
+        subscriberCounts.merge(key, 1, Integer::sum);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = accessor.getSessionId() != null ? sessions.get(accessor.getSessionId()) : null;
+        if (subscriptions == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        String key = subscriptions.remove(accessor.getSubscriptionId());
+        if (key != null) {
+            decrement(key);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::decrement);
+        }
+    }
+
+    private void decrement(String key) {
+        subscriberCounts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    // "/user/queue/x" subscriptions are tracked per user; anonymous sessions cannot receive them
+    private static String key(String destination, Principal user) {
+        if (destination == null) {
+            return null;
+        }
+        if (destination.startsWith(USER_PREFIX + "/")) {
+            return user != null ? userKey(user.getName(), destination.substring(USER_PREFIX.length())) : null;
+        }
+        return destination;
+    }
+
+    private static String userKey(String user, String destination) {
+        return USER_PREFIX + "/" + user + destination;
+    }
+}
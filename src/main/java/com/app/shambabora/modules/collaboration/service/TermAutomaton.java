@@ -0,0 +1,130 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton over a fixed set of patterns.
+ *
+ * A scan walks the text once, following failure links on mismatch, so its cost is linear in
+ * the text length plus the number of matches regardless of how many patterns were compiled.
+ * Instances are immutable once built and safe to share between threads.
+ */
+final class TermAutomaton {
+
+    interface MatchVisitor {
+        /**
+         * Called for every occurrence of a pattern; {@code end} is exclusive.
+         */
+        void onMatch(int patternIndex, int start, int end);
+    }
+
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final List<Integer> failure = new ArrayList<>();
+    // Pattern ending exactly at a state, or -1
+    private final List<Integer> terminal = new ArrayList<>();
+    // Nearest state on the failure chain that is terminal, or -1
+    private final List<Integer> outputLink = new ArrayList<>();
+    private final int[] patternLengths;
+
+    private TermAutomaton(int patternCount) {
+        this.patternLengths = new int[patternCount];
+        newState();
+    }
+
+    static TermAutomaton build(List<String> patterns) {
+        TermAutomaton automaton = new TermAutomaton(patterns.size());
+        for (int i = 0; i < patterns.size(); i++) {
+            automaton.insert(patterns.get(i), i);
+        }
+        automaton.link();
+        return automaton;
+    }
+
+    boolean isEmpty() {
+        return patternLengths.length == 0;
+    }
+
+    void scan(CharSequence text, MatchVisitor visitor) {
+        if (isEmpty()) {
+            return;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            Integer next = transitions.get(state).get(c);
+            while (next == null && state != 0) {
+                state = failure.get(state);
+                next = transitions.get(state).get(c);
+            }
+            state = next != null ? next : 0;
+
+            int out = terminal.get(state) >= 0 ? state : outputLink.get(state);
+            while (out > 0) {
+                int pattern = terminal.get(out);
+                visitor.onMatch(pattern, i + 1 - patternLengths[pattern], i + 1);
+                out = outputLink.get(out);
+            }
+        }
+    }
+
+    private void insert(String pattern, int index) {
+        patternLengths[index] = pattern.length();
+        if (pattern.isEmpty()) {
+            return;
+        }
+        int state = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            Integer next = transitions.get(state).get(c);
+            if (next == null) {
+                next = newState();
+                transitions.get(state).put(c, next);
+            }
+            state = next;
+        }
+        // Duplicate patterns collapse onto the first one
+        if (terminal.get(state) < 0) {
+            terminal.set(state, index);
+        }
+    }
+
+    /**
+     * Breadth-first pass computing failure and output links.
+     */
+    private void link() {
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : transitions.get(0).values()) {
+            failure.set(child, 0);
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+                char c = edge.getKey();
+                int child = edge.getValue();
+                int f = failure.get(state);
+                Integer target = transitions.get(f).get(c);
+                while (target == null && f != 0) {
+                    f = failure.get(f);
+                    target = transitions.get(f).get(c);
+                }
+                int childFailure = target != null && target != child ? target : 0;
+                failure.set(child, childFailure);
+                outputLink.set(child, terminal.get(childFailure) >= 0 ? childFailure : outputLink.get(childFailure));
+                queue.add(child);
+            }
+        }
+    }
+
+    private int newState() {
+        transitions.add(new HashMap<>(4));
+        failure.add(0);
+        terminal.add(-1);
+        outputLink.add(-1);
+        return transitions.size() - 1;
+    }
+}
@@ -0,0 +1,441 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * In-process trending scorer for posts.
+ *
+ * Every like/comment adds a weight that decays exponentially with the configured half-life.
+ * Scores use forward decay: an event at time t contributes {@code w * e^((t - landmark) / tau)},
+ * so relative order never changes as time passes and scores only need rescaling when the
+ * exponent grows large. Scores live in a primitive long-keyed open-addressing map, and a
+ * bounded top-K heap is kept for the global scope and for each group, so a trending read
+ * only copies K entries. Scores are snapshotted to disk periodically and reloaded on startup.
+ */
+@Component
+@Slf4j
+public class TrendingPostScorer {
+
+    private static final int SNAPSHOT_MAGIC = 0x54524E44; // "TRND"
+    private static final double RESCALE_EXPONENT = 40.0;
+    private static final double MIN_SCORE = 1e-4;
+    private static final long NO_GROUP = -1L;
+
+    @Value("${app.trending.half-life-hours:12}")
+    private double halfLifeHours;
+
+    @Value("${app.trending.top-k:100}")
+    private int topK;
+
+    @Value("${app.trending.like-weight:1.0}")
+    private double likeWeight;
+
+    @Value("${app.trending.comment-weight:2.0}")
+    private double commentWeight;
+
+    @Value("${app.trending.snapshot-path:data/trending.snapshot}")
+    private String snapshotPath;
+
+    private double tauSeconds;
+    private long landmarkEpochSecond;
+
+    private final LongScoreMap scores = new LongScoreMap();
+    private TopK globalTop;
+    private final Map<Long, TopK> groupTops = new HashMap<>();
+
+    // Serializes snapshot writes (scheduled and shutdown) to the shared temp file
+    private final Object snapshotLock = new Object();
+
+    @PostConstruct
+    public void init() {
+        tauSeconds = halfLifeHours * 3600.0 / Math.log(2);
+        landmarkEpochSecond = nowEpochSecond();
+        globalTop = new TopK(topK);
+        loadSnapshot();
+    }
+
+    public void onLike(Long postId, Long groupId, int delta) {
+        record(postId, groupId, likeWeight * delta);
+    }
+
+    public void onComment(Long postId, Long groupId) {
+        record(postId, groupId, commentWeight);
+    }
+
+    public synchronized void remove(Long postId) {
+        long groupId = scores.groupOf(postId);
+        scores.remove(postId);
+        globalTop.remove(postId);
+        TopK groupTop = groupTops.get(groupId);
+        if (groupTop != null) {
+            groupTop.remove(postId);
+        }
+    }
+
+    /**
+     * Returns the ids of the top trending posts, highest score first.
+     * A null group id means the global scope.
+     */
+    public synchronized List<Long> topPostIds(Long groupId, int limit) {
+        TopK top = groupId == null ? globalTop : groupTops.get(groupId);
+        if (top == null) {
+            return List.of();
+        }
+        return top.sortedIds(limit);
+    }
+
+    private synchronized void record(Long postId, Long groupId, double weight) {
+        long now = nowEpochSecond();
+        if ((now - landmarkEpochSecond) / tauSeconds > RESCALE_EXPONENT) {
+            rescale(now);
+        }
+        double increment = weight * Math.exp((now - landmarkEpochSecond) / tauSeconds);
+        long group = groupId != null ? groupId : NO_GROUP;
+        double score = Math.max(0, scores.add(postId, group, increment));
+
+        globalTop.offer(postId, score);
+        if (group != NO_GROUP) {
+            groupTops.computeIfAbsent(group, g -> new TopK(topK)).offer(postId, score);
+        }
+    }
+
+    /**
+     * Drops posts whose decayed score has fallen below the floor. Rescaling only happens when
+     * the exponent gets large (about every 29 days with a 12 hour half-life), so without this
+     * the score map would keep every post ever liked in between.
+     */
+    @Scheduled(fixedDelayString = "${app.trending.prune-interval-ms:600000}", initialDelayString = "${app.trending.prune-interval-ms:600000}")
+    public synchronized void pruneDecayed() {
+        int before = scores.size();
+        rescale(nowEpochSecond());
+        log.debug("Pruned {} decayed trending scores, {} posts retained", before - scores.size(), scores.size());
+    }
+
+    /**
+     * Moves the landmark forward, shrinking all stored scores accordingly, drops posts whose
+     * decayed score is negligible and rebuilds the heaps from scratch.
+     */
+    private void rescale(long now) {
+        double factor = Math.exp(-(now - landmarkEpochSecond) / tauSeconds);
+        landmarkEpochSecond = now;
+        scores.scaleAndPrune(factor, MIN_SCORE);
+        rebuildHeaps();
+    }
+
+    private void rebuildHeaps() {
+        globalTop = new TopK(topK);
+        groupTops.clear();
+        scores.forEach((postId, groupId, score) -> {
+            globalTop.offer(postId, score);
+            if (groupId != NO_GROUP) {
+                groupTops.computeIfAbsent(groupId, g -> new TopK(topK)).offer(postId, score);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.trending.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        Path target = Paths.get(snapshotPath);
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        // Copy the state under the scorer lock and write it without holding that lock, so likes
+        // and comments never wait on disk I/O
+        long landmark;
+        LongScoreMap copy;
+        synchronized (this) {
+            // Rebuilding here also repairs heap entries that lost rank after unlikes
+            rebuildHeaps();
+            landmark = landmarkEpochSecond;
+            copy = scores.copy();
+        }
+        synchronized (snapshotLock) {
+            try {
+                if (target.getParent() != null) {
+                    Files.createDirectories(target.getParent());
+                }
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    out.writeInt(SNAPSHOT_MAGIC);
+                    out.writeLong(landmark);
+                    out.writeInt(copy.size());
+                    copy.forEach((postId, groupId, score) -> {
+                        try {
+                            out.writeLong(postId);
+                            out.writeLong(groupId);
+                            out.writeDouble(score);
+                        } catch (IOException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    });
+                }
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | IllegalStateException e) {
+                log.warn("Failed to write trending snapshot to {}: {}", target, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    private synchronized void loadSnapshot() {
+        Path source = Paths.get(snapshotPath);
+        if (!Files.exists(source)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                log.warn("Ignoring trending snapshot {} with unknown format", source);
+                return;
+            }
+            landmarkEpochSecond = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                scores.add(in.readLong(), in.readLong(), in.readDouble());
+            }
+            rescale(nowEpochSecond());
+            log.info("Loaded trending snapshot with {} posts", scores.size());
+        } catch (IOException e) {
+            log.warn("Failed to load trending snapshot {}: {}", source, e.getMessage());
+        }
+    }
+
+    private static long nowEpochSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    /**
+     * Bounded min-heap holding the K highest scores of one scope.
+     */
+    private static final class TopK {
+        private final int capacity;
+        private final PriorityQueue<Entry> heap;
+        private final Map<Long, Entry> members = new HashMap<>();
+
+        TopK(int capacity) {
+            this.capacity = capacity;
+            this.heap = new PriorityQueue<>(capacity, (a, b) -> Double.compare(a.score, b.score));
+        }
+
+        void offer(long postId, double score) {
+            Entry existing = members.get(postId);
+            if (existing != null) {
+                heap.remove(existing);
+                existing.score = score;
+                heap.add(existing);
+                return;
+            }
+            if (heap.size() < capacity) {
+                add(postId, score);
+            } else if (score > heap.peek().score) {
+                members.remove(heap.poll().postId);
+                add(postId, score);
+            }
+        }
+
+        void remove(long postId) {
+            Entry existing = members.remove(postId);
+            if (existing != null) {
+                heap.remove(existing);
+            }
+        }
+
+        List<Long> sortedIds(int limit) {
+            Entry[] entries = heap.toArray(new Entry[0]);
+            Arrays.sort(entries, (a, b) -> Double.compare(b.score, a.score));
+            int n = Math.max(0, Math.min(limit, entries.length));
+            List<Long> ids = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                ids.add(entries[i].postId);
+            }
+            return ids;
+        }
+
+        private void add(long postId, double score) {
+            Entry entry = new Entry(postId, score);
+            heap.add(entry);
+            members.put(postId, entry);
+        }
+
+        private static final class Entry {
+            private final long postId;
+            private double score;
+
+            Entry(long postId, double score) {
+                this.postId = postId;
+                this.score = score;
+            }
+        }
+    }
+
+    /**
+     * Open-addressing map from post id to (group id, forward-decayed score) with linear probing
+     * over primitive arrays, avoiding a boxed Long/Double pair per post.
+     */
+    private static final class LongScoreMap {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys = newKeys(1024);
+        private long[] groups = new long[1024];
+        private double[] values = new double[1024];
+        private int size;
+
+        interface Visitor {
+            void visit(long postId, long groupId, double score);
+        }
+
+        double add(long key, long groupId, double delta) {
+            if ((size + 1) * 4 > keys.length * 3) {
+                resize(keys.length * 2);
+            }
+            int slot = slot(key, keys);
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                groups[slot] = groupId;
+                values[slot] = 0;
+                size++;
+            }
+            values[slot] += delta;
+            return values[slot];
+        }
+
+        long groupOf(long key) {
+            int slot = slot(key, keys);
+            return keys[slot] == EMPTY ? NO_GROUP : groups[slot];
+        }
+
+        void remove(long key) {
+            int slot = slot(key, keys);
+            if (keys[slot] == EMPTY) {
+                return;
+            }
+            keys[slot] = EMPTY;
+            size--;
+            // Re-insert the rest of the probe run so lookups keep working
+            int next = (slot + 1) & (keys.length - 1);
+            while (keys[next] != EMPTY) {
+                long k = keys[next];
+                long g = groups[next];
+                double v = values[next];
+                keys[next] = EMPTY;
+                int target = slot(k, keys);
+                keys[target] = k;
+                groups[target] = g;
+                values[target] = v;
+                next = (next + 1) & (keys.length - 1);
+            }
+        }
+
+        void scaleAndPrune(double factor, double minScore) {
+            long[] oldKeys = keys;
+            long[] oldGroups = groups;
+            double[] oldValues = values;
+            int retained = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY && oldValues[i] * factor >= minScore) {
+                    retained++;
+                }
+            }
+            // Shrink back towards the retained size so a past burst does not pin a huge table
+            int capacity = 1024;
+            while (capacity < oldKeys.length && retained * 4 > capacity * 3 / 2) {
+                capacity *= 2;
+            }
+            keys = newKeys(capacity);
+            groups = new long[capacity];
+            values = new double[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                double scaled = oldValues[i] * factor;
+                if (oldKeys[i] != EMPTY && scaled >= minScore) {
+                    insert(oldKeys[i], oldGroups[i], scaled);
+                }
+            }
+        }
+
+        LongScoreMap copy() {
+            LongScoreMap copy = new LongScoreMap();
+            copy.keys = keys.clone();
+            copy.groups = groups.clone();
+            copy.values = values.clone();
+            copy.size = size;
+            return copy;
+        }
+
+        void forEach(Visitor visitor) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY) {
+                    visitor.visit(keys[i], groups[i], values[i]);
+                }
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldGroups = groups;
+            double[] oldValues = values;
+            keys = newKeys(capacity);
+            groups = new long[capacity];
+            values = new double[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    insert(oldKeys[i], oldGroups[i], oldValues[i]);
+                }
+            }
+        }
+
+        private void insert(long key, long groupId, double value) {
+            int slot = slot(key, keys);
+            keys[slot] = key;
+            groups[slot] = groupId;
+            values[slot] = value;
+            size++;
+        }
+
+        private static int slot(long key, long[] keys) {
+            int mask = keys.length - 1;
+            int slot = (int) (mix(key) & mask);
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private static long mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return h ^ (h >>> 32);
+        }
+
+        private static long[] newKeys(int capacity) {
+            long[] k = new long[capacity];
+            Arrays.fill(k, EMPTY);
+            return k;
+        }
+    }
+}
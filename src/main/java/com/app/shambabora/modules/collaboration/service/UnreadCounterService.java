@@ -0,0 +1,127 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.modules.collaboration.event.UnreadCountChangedEvent;
+import com.app.shambabora.modules.collaboration.repository.DirectMessageRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user unread direct message counts held in memory.
+ *
+ * A user's counter is loaded from the database the first time it is needed and then moved by
+ * the send and read paths once their transaction commits, so a rolled back send never shows up.
+ * Every change is pushed to the user's {@code /queue/unread} destination when WebSockets are
+ * enabled, which lets clients stop polling. Counters are dropped after
+ * {@code app.messages.unread-cache-ttl-ms} and reloaded on next use, which bounds memory to
+ * recently active users and corrects any drift. Each change is also sent to the other nodes
+ * over the {@link ClusterEventBus}, which move their cached counter for the user (if any) by
+ * the same delta; the push to the client happens once, on the committing node.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadCounterService {
+
+    private static final String CHANGED_CHANNEL = "unread.changed";
+
+    private final DirectMessageRepository directMessageRepository;
+    private final ClusterEventBus clusterEventBus;
+    private final Optional<NotificationEventDispatcher> notificationEventDispatcher;
+
+    @Value("${app.messages.unread-cache-ttl-ms:900000}")
+    private long ttlMillis;
+
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void subscribe() {
+        // Another node committed the change; only a counter cached here needs to follow it
+        clusterEventBus.subscribe(CHANGED_CHANNEL, values -> counters.computeIfPresent(values[0], (id, counter) -> {
+            counter.add(values[1]);
+            return counter;
+        }));
+    }
+
+    public long getUnreadCount(Long userId) {
+        return counter(userId).value.get();
+    }
+
+    public void messageReceived(Long recipientId) {
+        afterCommit(() -> adjust(recipientId, 1));
+    }
+
+    public void messagesRead(Long readerId, long count) {
+        if (count <= 0) {
+            return;
+        }
+        afterCommit(() -> adjust(readerId, -count));
+    }
+
+    @Scheduled(fixedDelayString = "${app.messages.unread-sweep-ms:60000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        counters.values().removeIf(counter -> counter.loadedAtMillis < cutoff);
+    }
+
+    private void adjust(Long userId, long delta) {
+        // Inside compute, so the delta waits for a concurrent load instead of being dropped.
+        // A load that already saw this commit over-counts by the delta until the TTL reload.
+        Counter counter = counters.compute(userId, (id, current) -> {
+            if (current == null) {
+                // Not cached: the committed database count already includes this change
+                return load(id);
+            }
+            current.add(delta);
+            return current;
+        });
+        long value = counter.value.get();
+        clusterEventBus.publish(CHANGED_CHANNEL, userId, delta);
+        // Already after commit, so queue directly rather than through a transactional listener
+        notificationEventDispatcher.ifPresent(dispatcher -> dispatcher.submit(new UnreadCountChangedEvent(userId, value)));
+    }
+
+    private Counter counter(Long userId) {
+        return counters.computeIfAbsent(userId, this::load);
+    }
+
+    private Counter load(Long userId) {
+        return new Counter(directMessageRepository.countByRecipientIdAndReadAtIsNull(userId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class Counter {
+        private final AtomicLong value;
+        private final long loadedAtMillis;
+
+        Counter(long value) {
+            this.value = new AtomicLong(value);
+            this.loadedAtMillis = System.currentTimeMillis();
+        }
+
+        void add(long delta) {
+            value.updateAndGet(current -> Math.max(0, current + delta));
+        }
+    }
+}
@@ -9,4 +9,5 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Page<Product> findByNameContainingIgnoreCaseAndAvailableIsTrue(String q, Pageable pageable);
     Page<Product> findBySellerIdOrderByCreatedAtDesc(Long sellerId, Pageable pageable);
     Page<Product> findBySellerIdAndAvailableIsTrueOrderByCreatedAtDesc(Long sellerId, Pageable pageable);
+    long countByAvailableIsTrue();
 } 
\ No newline at end of file
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,4 +32,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT u FROM User u WHERE u.deletedAt IS NULL AND u.isActive = true")
     List<User> findAllActiveAndEnabled();
+    
+    long countByIsActiveTrue();
+    
+    // Projection for UserDirectory; avoids loading the eager role collection
+    @Query("SELECT u.id, u.fullName, u.username, u.avatarUrl FROM User u WHERE u.id IN :ids")
+    List<Object[]> findDirectoryRows(@Param("ids") Collection<Long> ids);
 }
@@ -30,6 +30,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final UserDirectory userDirectory;
 
     // Self-registration - only FARMER and BUYER allowed
     public AuthResponse register(RegisterRequest request) {
@@ -116,8 +117,10 @@ public class AuthService {
         user.setFullName(request.getFullName());
         user.setEmail(request.getEmail());
         user.setPhoneNumber(request.getPhoneNumber());
+        user.setAvatarUrl(request.getAvatarUrl());
 
         User savedUser = userRepository.save(user);
+        userDirectory.invalidate(savedUser.getId());
         return convertToDto(savedUser);
     }
 
@@ -129,6 +132,7 @@ public class AuthService {
         user.setDeletedAt(LocalDateTime.now());
         user.setIsActive(false);
         userRepository.save(user);
+        userDirectory.invalidate(user.getId());
     }
 
     // Admin: Get all users
@@ -200,6 +204,7 @@ public class AuthService {
         user.setDeletedAt(LocalDateTime.now());
         user.setIsActive(false);
         userRepository.save(user);
+        userDirectory.invalidate(user.getId());
     }
 
     // Admin: Activate/Deactivate user
@@ -209,6 +214,7 @@ public class AuthService {
         
         user.setIsActive(!user.getIsActive());
         User savedUser = userRepository.save(user);
+        userDirectory.invalidate(userId);
         return convertToDto(savedUser);
     }
 
@@ -224,6 +230,7 @@ public class AuthService {
                 .email(user.getEmail())
                 .fullName(user.getFullName())
                 .phoneNumber(user.getPhoneNumber())
+                .avatarUrl(user.getAvatarUrl())
                 .roles(user.getRoles())
                 .createdAt(user.getCreatedAt())
                 .updatedAt(user.getUpdatedAt())
@@ -0,0 +1,188 @@
+package com.app.shambabora.service;
+
+import com.app.shambabora.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves user ids to display names and avatars for DTO mappers.
+ *
+ * Ids missing from the cache are loaded with one {@code IN (...)} projection query per call, so
+ * mapping a page of posts, comments, messages or memberships costs at most one user lookup.
+ * The cache is an LRU bounded by an estimate of its size in bytes rather than by entry count,
+ * and entries also expire after {@code app.users.directory-ttl-ms} so that edits made through
+ * another instance show up eventually. AuthService invalidates entries when a profile changes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserDirectory {
+
+    public static final String UNKNOWN_USER = "Unknown User";
+
+    // Object headers, the map entry and the boxed key
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    private final UserRepository userRepository;
+
+    @Value("${app.users.directory-cache-max-bytes:4194304}")
+    private long maxBytes;
+
+    @Value("${app.users.directory-ttl-ms:600000}")
+    private long ttlMillis;
+
+    private final LinkedHashMap<Long, CachedUser> cache = new LinkedHashMap<>(256, 0.75f, true);
+    private long cachedBytes;
+    // Bumped on every invalidation so a load that raced with it does not cache stale rows
+    private long generation;
+
+    /**
+     * Returns a summary for every non-null id; unknown users map to {@link UserSummary#unknown}.
+     */
+    public Map<Long, UserSummary> resolve(Collection<Long> userIds) {
+        Map<Long, UserSummary> result = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        long startGeneration;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            for (Long userId : userIds) {
+                if (userId == null || result.containsKey(userId)) {
+                    continue;
+                }
+                CachedUser cached = cache.get(userId);
+                if (cached != null && cached.expiresAtMillis > now) {
+                    result.put(userId, cached.summary);
+                } else {
+                    missing.add(userId);
+                }
+            }
+            startGeneration = generation;
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, UserSummary> loaded = load(missing);
+        synchronized (this) {
+            boolean cacheable = startGeneration == generation;
+            long expiresAt = System.currentTimeMillis() + ttlMillis;
+            for (Long userId : missing) {
+                // Ids with no row are cached too, so lookups for deleted users stay cheap
+                UserSummary summary = loaded.getOrDefault(userId, UserSummary.unknown(userId));
+                result.put(userId, summary);
+                if (cacheable) {
+                    put(userId, new CachedUser(summary, expiresAt));
+                }
+            }
+        }
+        return result;
+    }
+
+    public UserSummary get(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return resolve(List.of(userId)).get(userId);
+    }
+
+    public String displayName(Long userId) {
+        UserSummary summary = get(userId);
+        return summary != null ? summary.getDisplayName() : null;
+    }
+
+    public synchronized void invalidate(Long userId) {
+        generation++;
+        CachedUser removed = cache.remove(userId);
+        if (removed != null) {
+            cachedBytes -= removed.weight;
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        cache.clear();
+        cachedBytes = 0;
+    }
+
+    private Map<Long, UserSummary> load(Set<Long> userIds) {
+        Map<Long, UserSummary> loaded = new HashMap<>();
+        List<Long> ids = new ArrayList<>(userIds);
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+            for (Object[] row : userRepository.findDirectoryRows(chunk)) {
+                Long id = (Long) row[0];
+                loaded.put(id, new UserSummary(id, pickDisplayName((String) row[1], (String) row[2]), (String) row[3]));
+            }
+        }
+        log.debug("Loaded {} of {} users into the directory", loaded.size(), userIds.size());
+        return loaded;
+    }
+
+    private void put(Long userId, CachedUser entry) {
+        CachedUser previous = cache.put(userId, entry);
+        if (previous != null) {
+            cachedBytes -= previous.weight;
+        }
+        cachedBytes += entry.weight;
+        Iterator<CachedUser> eldest = cache.values().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            cachedBytes -= eldest.next().weight;
+            eldest.remove();
+        }
+    }
+
+    private static String pickDisplayName(String fullName, String username) {
+        if (fullName != null && !fullName.isBlank()) {
+            return fullName;
+        }
+        return username != null ? username : UNKNOWN_USER;
+    }
+
+    public static final class UserSummary {
+        private final Long id;
+        private final String displayName;
+        private final String avatarUrl;
+
+        UserSummary(Long id, String displayName, String avatarUrl) {
+            this.id = id;
+            this.displayName = displayName;
+            this.avatarUrl = avatarUrl;
+        }
+
+        static UserSummary unknown(Long id) {
+            return new UserSummary(id, UNKNOWN_USER, null);
+        }
+
+        public Long getId() { return id; }
+        public String getDisplayName() { return displayName; }
+        public String getAvatarUrl() { return avatarUrl; }
+    }
+
+    private static final class CachedUser {
+        private final UserSummary summary;
+        private final long expiresAtMillis;
+        private final long weight;
+
+        CachedUser(UserSummary summary, long expiresAtMillis) {
+            this.summary = summary;
+            this.expiresAtMillis = expiresAtMillis;
+            // Strings are UTF-16 in the worst case
+            this.weight = ENTRY_OVERHEAD_BYTES
+                    + 2L * summary.displayName.length()
+                    + (summary.avatarUrl != null ? 2L * summary.avatarUrl.length() : 0);
+        }
+    }
+}
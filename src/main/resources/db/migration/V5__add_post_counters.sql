@@ -0,0 +1,8 @@
+-- Denormalized like/comment counters on posts (maintained by PostCounterBuffer)
+ALTER TABLE posts ADD COLUMN like_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE posts ADD COLUMN comment_count BIGINT NOT NULL DEFAULT 0;
+
+-- Backfill from the source tables
+UPDATE posts p SET
+  like_count = (SELECT COUNT(*) FROM post_likes pl WHERE pl.post_id = p.id),
+  comment_count = (SELECT COUNT(*) FROM post_comments pc WHERE pc.post_id = p.id AND pc.status = 'ACTIVE');
@@ -0,0 +1,2 @@
+-- Profile picture shown next to user names (resolved through UserDirectory)
+ALTER TABLE users ADD COLUMN avatar_url VARCHAR(500);
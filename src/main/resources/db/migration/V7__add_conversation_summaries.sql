@@ -0,0 +1,31 @@
+-- Inbox read model for direct messages (maintained by DirectMessageService)
+CREATE TABLE IF NOT EXISTS conversation_summaries (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  user_id BIGINT NOT NULL,
+  partner_id BIGINT NOT NULL,
+  last_message_id BIGINT NOT NULL,
+  last_sender_id BIGINT NOT NULL,
+  last_message_preview VARCHAR(200),
+  last_message_type VARCHAR(20),
+  last_message_at DATETIME(6) NOT NULL,
+  unread_count BIGINT NOT NULL DEFAULT 0,
+  updated_at DATETIME(6),
+  CONSTRAINT uk_conversation_summaries_pair UNIQUE (user_id, partner_id),
+  INDEX idx_conversation_summaries_inbox (user_id, last_message_at, last_message_id)
+);
+
+-- Backfill one row per side of every existing conversation (DirectMessageDataRepair runs the
+-- same backfill on startup if the application was deployed before this script)
+INSERT IGNORE INTO conversation_summaries
+  (user_id, partner_id, last_message_id, last_sender_id, last_message_preview, last_message_type, last_message_at, unread_count, updated_at)
+SELECT c.user_id, c.partner_id, dm.id, dm.sender_id, LEFT(dm.content, 200), dm.message_type, dm.created_at, c.unread, NOW(6)
+FROM (
+  SELECT t.user_id, t.partner_id, MAX(t.id) AS last_id, SUM(t.unread) AS unread
+  FROM (
+    SELECT sender_id AS user_id, recipient_id AS partner_id, id, 0 AS unread FROM direct_messages
+    UNION ALL
+    SELECT recipient_id, sender_id, id, CASE WHEN read_at IS NULL THEN 1 ELSE 0 END FROM direct_messages
+  ) t
+  GROUP BY t.user_id, t.partner_id
+) c
+JOIN direct_messages dm ON dm.id = c.last_id;
@@ -0,0 +1,22 @@
+-- Canonical conversation key ("<lower id>:<higher id>") so a conversation is one index range.
+-- Safe to re-run: with ddl-auto=update Hibernate may already have added the column (as NOT NULL,
+-- which MySQL fills with '' on existing rows) and the index before this script is applied.
+SET @has_column = (SELECT COUNT(*) FROM information_schema.COLUMNS
+  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'direct_messages' AND COLUMN_NAME = 'conversation_key');
+SET @ddl = IF(@has_column = 0, 'ALTER TABLE direct_messages ADD COLUMN conversation_key VARCHAR(41)', 'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+UPDATE direct_messages
+SET conversation_key = CONCAT(LEAST(sender_id, recipient_id), ':', GREATEST(sender_id, recipient_id))
+WHERE conversation_key IS NULL OR conversation_key = '';
+
+ALTER TABLE direct_messages MODIFY conversation_key VARCHAR(41) NOT NULL;
+
+SET @has_index = (SELECT COUNT(*) FROM information_schema.STATISTICS
+  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'direct_messages' AND INDEX_NAME = 'idx_direct_messages_conversation');
+SET @ddl = IF(@has_index = 0, 'CREATE INDEX idx_direct_messages_conversation ON direct_messages (conversation_key, created_at, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,23 @@
+-- Composite indexes behind the keyset (cursor) queries: each page is one index range scan
+-- ordered by (time, id). Safe to re-run: with ddl-auto=update Hibernate may already have
+-- created them from the entity @Index annotations.
+SET @has_index = (SELECT COUNT(*) FROM information_schema.STATISTICS
+  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'posts' AND INDEX_NAME = 'idx_posts_group_created');
+SET @ddl = IF(@has_index = 0, 'CREATE INDEX idx_posts_group_created ON posts (group_id, created_at, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @has_index = (SELECT COUNT(*) FROM information_schema.STATISTICS
+  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'post_comments' AND INDEX_NAME = 'idx_post_comments_post_status_created');
+SET @ddl = IF(@has_index = 0, 'CREATE INDEX idx_post_comments_post_status_created ON post_comments (post_id, status, created_at, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @has_index = (SELECT COUNT(*) FROM information_schema.STATISTICS
+  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'messages' AND INDEX_NAME = 'idx_messages_group_sent');
+SET @ddl = IF(@has_index = 0, 'CREATE INDEX idx_messages_group_sent ON messages (group_id, sent_at, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,172 @@
+package com.app.shambabora.modules.collaboration.service;
+
+import com.app.shambabora.modules.collaboration.entity.DirectMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DirectMessageArchiveTest {
+
+    private static final String KEY = "1:2";
+    private static final Instant START = Instant.parse("2025-01-01T08:00:00.123456Z");
+
+    @TempDir
+    Path dir;
+
+    private final List<DirectMessageArchive> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeArchives() {
+        opened.forEach(DirectMessageArchive::closeAll);
+    }
+
+    @Test
+    void roundTripsMessagesAcrossBlocksAndRestarts() {
+        DirectMessageArchive archive = openArchive();
+        List<DirectMessage> first = messages(1, 50);
+        List<DirectMessage> second = messages(51, 30);
+        assertThat(archive.append(KEY, first)).hasSize(50);
+        assertThat(archive.append(KEY, second)).hasSize(30);
+
+        archive.closeAll();
+        DirectMessageArchive reopened = openArchive();
+
+        List<DirectMessage> all = new ArrayList<>(first);
+        all.addAll(second);
+        assertThat(reopened.contains(KEY)).isTrue();
+        assertThat(reopened.count(KEY)).isEqualTo(80);
+        assertThat(reopened.read(KEY, 0, 100)).containsExactlyElementsOf(all);
+        assertThat(reopened.read(KEY, 45, 10)).containsExactlyElementsOf(all.subList(45, 55));
+        assertThat(reopened.find(KEY, 60L)).isEqualTo(all.get(59));
+
+        DirectMessage cursor = all.get(52);
+        assertThat(reopened.readBefore(KEY, cursor.getCreatedAt(), cursor.getId(), 5))
+                .extracting(DirectMessage::getId)
+                .containsExactly(52L, 51L, 50L, 49L, 48L);
+    }
+
+    @Test
+    void skipsMessagesAlreadyArchived() {
+        DirectMessageArchive archive = openArchive();
+        archive.append(KEY, messages(1, 10));
+
+        List<Long> stored = archive.append(KEY, messages(1, 15));
+
+        assertThat(stored).hasSize(15);
+        assertThat(archive.count(KEY)).isEqualTo(15);
+    }
+
+    @Test
+    void truncatesTornTailBlockOnOpen() throws IOException {
+        DirectMessageArchive archive = openArchive();
+        archive.append(KEY, messages(1, 20));
+        archive.append(KEY, messages(21, 20));
+        archive.closeAll();
+
+        Path segment = segmentFile();
+        long size = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 7);
+        }
+
+        DirectMessageArchive reopened = openArchive();
+        assertThat(reopened.count(KEY)).isEqualTo(20);
+        assertThat(reopened.read(KEY, 0, 100)).extracting(DirectMessage::getId).containsExactlyElementsOf(ids(1, 20));
+
+        // The next block is written where the torn one started
+        reopened.append(KEY, messages(21, 20));
+        reopened.closeAll();
+        assertThat(openArchive().read(KEY, 0, 100)).extracting(DirectMessage::getId).containsExactlyElementsOf(ids(1, 40));
+    }
+
+    @Test
+    void dropsTailBlockWithBadChecksumOnOpen() throws IOException {
+        DirectMessageArchive archive = openArchive();
+        archive.append(KEY, messages(1, 20));
+        archive.append(KEY, messages(21, 20));
+        archive.closeAll();
+
+        Path segment = segmentFile();
+        long size = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, size - 1);
+            last.flip();
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) ~last.get()}), size - 1);
+        }
+
+        DirectMessageArchive reopened = openArchive();
+        assertThat(reopened.count(KEY)).isEqualTo(20);
+        assertThat(reopened.read(KEY, 0, 100)).extracting(DirectMessage::getId).containsExactlyElementsOf(ids(1, 20));
+        assertThat(Files.size(segment)).isLessThan(size);
+    }
+
+    @Test
+    void seesArchivesWrittenByAnotherInstance() {
+        DirectMessageArchive writer = openArchive();
+        DirectMessageArchive reader = openArchive();
+
+        writer.append(KEY, messages(1, 20));
+        assertThat(reader.contains(KEY)).isTrue();
+        assertThat(reader.count(KEY)).isEqualTo(20);
+
+        // The reader's segment is open now; a later block must still show up
+        writer.append(KEY, messages(21, 20));
+        assertThat(reader.count(KEY)).isEqualTo(40);
+        assertThat(reader.read(KEY, 0, 100)).extracting(DirectMessage::getId).containsExactlyElementsOf(ids(1, 40));
+        assertThat(reader.find(KEY, 35L)).isNotNull();
+    }
+
+    private DirectMessageArchive openArchive() {
+        DirectMessageArchive archive = new DirectMessageArchive();
+        ReflectionTestUtils.setField(archive, "archiveDir", dir.toString());
+        ReflectionTestUtils.setField(archive, "maxOpenSegments", 4);
+        archive.loadArchivedKeys();
+        opened.add(archive);
+        return archive;
+    }
+
+    private Path segmentFile() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".seg")).findFirst().orElseThrow();
+        }
+    }
+
+    private static List<DirectMessage> messages(long firstId, int count) {
+        List<DirectMessage> messages = new ArrayList<>(count);
+        for (long id = firstId; id < firstId + count; id++) {
+            messages.add(DirectMessage.builder()
+                    .id(id)
+                    .senderId(id % 2 == 0 ? 1L : 2L)
+                    .recipientId(id % 2 == 0 ? 2L : 1L)
+                    .conversationKey(KEY)
+                    .content("Message " + id + " about maize prices")
+                    .imageUrl(id % 7 == 0 ? "https://img.example/" + id + ".jpg" : null)
+                    .messageType(id % 7 == 0 ? DirectMessage.MessageType.IMAGE : DirectMessage.MessageType.TEXT)
+                    .status(DirectMessage.MessageStatus.READ)
+                    .readAt(id % 3 == 0 ? START.plusSeconds(id * 60 + 5) : null)
+                    .createdAt(START.plusSeconds(id * 60))
+                    .build());
+        }
+        return messages;
+    }
+
+    private static List<Long> ids(long from, int count) {
+        return Stream.iterate(from, id -> id + 1).limit(count).collect(Collectors.toList());
+    }
+}